@@ -4,7 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 配置管理属性类
@@ -37,6 +40,118 @@ public class ConfigManagerProperties {
      */
     private int syncInterval = 30;
 
+    /**
+     * WATCH模式下文件事件的静默合并时间(毫秒), 该时间内无新事件才触发同步
+     */
+    private long watchDebounceMillis = 2000;
+
+    /**
+     * WATCH模式下事件持续到达时的最长合并时间(毫秒)
+     */
+    private long watchMaxDelayMillis = 10000;
+
+    /**
+     * WATCH模式下本地文件删除时是否同步删除远程配置
+     */
+    private boolean watchDeleteRemote = false;
+
+    /**
+     * 同步并发度(同时同步的dataId数量)
+     */
+    private int syncParallelism = 8;
+
+    /**
+     * 是否在同步前通过Open API批量拉取远程配置并生成同步计划
+     */
+    private boolean bulkPlanEnabled = true;
+
+    /**
+     * 是否启用远程配置镜像(管理的配置注册Nacos监听器, 读取与同步计划使用内存镜像)
+     */
+    private boolean mirrorEnabled = true;
+
+    /**
+     * 远程配置镜像最大数量(超出时淘汰最久未访问的配置并注销监听器; 管理的配置数量更多时自动扩大)
+     */
+    private int mirrorCacheSize = 4096;
+
+    /**
+     * 是否启用远程变更检测(基于镜像监听通知, 远程内容与本地文件不一致时记录漂移)
+     */
+    private boolean driftDetectionEnabled = true;
+
+    /**
+     * 漂移处理策略
+     */
+    private DriftPolicy driftPolicy = DriftPolicy.REPORT;
+
+    /**
+     * 是否启用ZIP批量导入(首次初始化环境时, 同一命名空间内新建配置数量达到阈值则打包一次导入)
+     */
+    private boolean bulkImportEnabled = true;
+
+    /**
+     * 启用批量导入的新建配置数量阈值
+     */
+    private int bulkImportThreshold = 50;
+
+    /**
+     * 批量导入请求超时时间(毫秒)
+     */
+    private int bulkImportTimeout = 60000;
+
+    /**
+     * 是否在发布前对yml/yaml/properties/json做语义比对(仅空白、注释或键顺序变化时不发布)
+     */
+    private boolean semanticDiffEnabled = true;
+
+    /**
+     * 语义比对解析结果缓存数量
+     */
+    private int semanticDiffCacheSize = 1024;
+
+    /**
+     * 是否按读取时的远程内容MD5发布(CAS), 远程配置在读取后被修改时不覆盖, 重新读取该配置
+     */
+    private boolean casPublishEnabled = true;
+
+    /**
+     * CAS冲突后重新计划的最大次数(允许冲突时覆盖才会重新计划)
+     */
+    private int casMaxRetries = 3;
+
+    /**
+     * CAS冲突(远程在读取后被外部修改)时是否按最新远程内容重新计划并覆盖;
+     * 默认不覆盖, 记录漂移并跳过本次同步, 由漂移处理策略决定(REPORT策略下次同步覆盖)
+     */
+    private boolean casConflictOverwrite = false;
+
+    /**
+     * 是否启用发布发件箱(同步失败的配置持久化到备份目录, 后台按退避时间重放, 重启后继续)
+     */
+    private boolean outboxEnabled = true;
+
+    /**
+     * 发件箱重放检查间隔(毫秒)
+     */
+    private long outboxReplayInterval = 1000;
+
+    /**
+     * 发件箱重放退避基础时间、最大时间(毫秒)
+     */
+    private long outboxRetryBaseMillis = 1000;
+    private long outboxRetryMaxMillis = 60000;
+
+    /**
+     * 发件箱最大重放次数, 超过后移出发件箱等待下次全量同步, 0表示不限制
+     */
+    private int outboxMaxAttempts = 50;
+
+    /**
+     * 启动时排空发件箱的时间上限(毫秒), 超过后剩余项由后台继续重放, 不再阻塞启动同步
+     */
+    private long outboxDrainTimeout = 30000;
+
     /**
      * 是否覆盖已存在的配置
      */
@@ -52,6 +167,36 @@ public class ConfigManagerProperties {
      */
     private String backupPath = "backup";
 
+    /**
+     * 备份写入队列容量
+     */
+    private int backupQueueCapacity = 1024;
+
+    /**
+     * 备份写入批次大小(每批对象目录与索引只刷盘一次)
+     */
+    private int backupBatchSize = 128;
+
+    /**
+     * 发布前等待备份持久化的超时时间(毫秒), 超时则取消本次发布
+     */
+    private long backupTimeout = 30000;
+
+    /**
+     * 备份保留天数(每个配置的最新版本始终保留)
+     */
+    private int backupRetentionDays = 7;
+
+    /**
+     * 过期备份清理间隔(分钟)
+     */
+    private int backupCleanupInterval = 60;
+
+    /**
+     * 是否启用配置文件指纹缓存(缓存文件位于备份路径下)
+     */
+    private boolean fingerprintCacheEnabled = true;
+
     /**
      * 支持的环境列表
      */
@@ -64,9 +209,19 @@ public class ConfigManagerProperties {
 
     /**
      * 同步模式枚举
+     * WATCH: 从文件系统目录读取配置, 启动时全量同步, 之后监听文件变更增量同步
      */
     public enum SyncMode {
-        STARTUP, SCHEDULE, BOTH
+        STARTUP, SCHEDULE, BOTH, WATCH
+    }
+
+    /**
+     * 漂移处理策略枚举
+     * REPORT: 仅记录, 下次同步仍以本地文件覆盖; PROTECT: 记录并在处理前跳过同步;
+     * WRITE_BACK: 将远程内容写回本地文件(仅文件系统模式, 即WATCH同步模式; 其他模式按REPORT处理)
+     */
+    public enum DriftPolicy {
+        REPORT, PROTECT, WRITE_BACK
     }
 
     /**
@@ -77,6 +232,110 @@ public class ConfigManagerProperties {
         private String serverAddr = "localhost:8848";
         private String username = "nacos";
         private String password = "nacos";
+        /**
+         * 读取配置超时时间(毫秒)
+         */
         private int timeout = 5000;
+        /**
+         * 客户端请求超时时间(毫秒), 作用于发布、删除等请求
+         */
+        private int requestTimeout = 3000;
+        /**
+         * 默认命名空间ID(配置未指定命名空间时使用), 为空表示public
+         */
+        private String namespace = "";
+        /**
+         * 配置命名空间(环境名) -> Nacos命名空间ID, 未配置时直接使用环境名作为命名空间ID
+         */
+        private Map<String, String> namespaceMapping = new HashMap<>();
+        /**
+         * Nacos服务上下文路径(Open API使用)
+         */
+        private String contextPath = "/nacos";
+        /**
+         * 批量拉取配置时的分页大小
+         */
+        private int listPageSize = 500;
+        /**
+         * Nacos调用保护(自适应并发限制、重试与熔断)
+         */
+        private CallGuardConfig guard = new CallGuardConfig();
+        /**
+         * 复制目标集群(如其他数据中心), 同一配置目录在同步主集群的同时发布到各目标集群
+         */
+        private List<ClusterTarget> targets = new ArrayList<>();
+        /**
+         * 主集群同步完成后等待复制目标的最长时间(毫秒), 超时的目标在报告中标记为滞后, 在后台继续复制
+         */
+        private long targetWaitTimeout = 60000;
+    }
+
+    /**
+     * 复制目标集群配置
+     */
+    @Data
+    public static class ClusterTarget {
+        /**
+         * 目标名称(用于日志与同步报告)
+         */
+        private String name;
+        /**
+         * 集群地址、用户名、密码
+         */
+        private String serverAddr;
+        private String username;
+        private String password;
+        /**
+         * 配置命名空间(环境名) -> Nacos命名空间ID, 为空时使用主集群的映射
+         */
+        private Map<String, String> namespaceMapping;
+        /**
+         * 最大并发发布数
+         */
+        private int maxConcurrency = 4;
+        /**
+         * 发布队列容量, 队列满时只阻塞向该目标提交, 不影响其他目标
+         */
+        private int queueCapacity = 256;
+        /**
+         * 覆盖目标集群上的配置前是否备份现有内容(按目标名称单独记录); 关闭后目标集群被覆盖的内容无法恢复
+         */
+        private boolean backupEnabled = true;
+    }
+
+    /**
+     * Nacos调用保护配置
+     */
+    @Data
+    public static class CallGuardConfig {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+        /**
+         * 初始并发限制、最小并发限制、最大并发限制
+         */
+        private int initialLimit = 8;
+        private int minLimit = 1;
+        private int maxLimit = 64;
+        /**
+         * 调用耗时超过该值(毫秒)视为过载, 并发限制减半
+         */
+        private long latencyThresholdMillis = 1000;
+        /**
+         * 等待调用许可的最长时间(毫秒)
+         */
+        private long acquireTimeoutMillis = 30000;
+        /**
+         * 最大重试次数、重试基础间隔(毫秒)、重试最大间隔(毫秒), 间隔按指数增长并随机抖动
+         */
+        private int maxRetries = 3;
+        private long retryBaseDelayMillis = 200;
+        private long retryMaxDelayMillis = 5000;
+        /**
+         * 连续失败多少次后熔断、熔断持续时间(毫秒)
+         */
+        private int breakerFailureThreshold = 10;
+        private long breakerOpenMillis = 30000;
     }
 }
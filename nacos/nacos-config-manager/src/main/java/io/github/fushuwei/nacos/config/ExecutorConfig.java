@@ -0,0 +1,37 @@
+package io.github.fushuwei.nacos.config;
+
+import cn.hutool.core.thread.ThreadUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 线程池配置类
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Configuration
+public class ExecutorConfig {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    /**
+     * 创建配置同步线程池, 线程数即同步并发度上限
+     *
+     * @return 配置同步线程池
+     */
+    @Bean(name = "configSyncExecutor", destroyMethod = "shutdown")
+    public ExecutorService configSyncExecutor() {
+        int parallelism = Math.max(1, configManagerProperties.getSyncParallelism());
+        log.info("配置同步线程池初始化成功, 并发度: {}", parallelism);
+
+        return Executors.newFixedThreadPool(parallelism, ThreadUtil.newNamedThreadFactory("config-sync-", true));
+    }
+}
@@ -1,15 +1,10 @@
 package io.github.fushuwei.nacos.config;
 
-import com.alibaba.nacos.api.NacosFactory;
-import com.alibaba.nacos.api.config.ConfigService;
-import com.alibaba.nacos.api.exception.NacosException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.Properties;
-
 /**
  * Nacos配置类
  *
@@ -24,22 +19,16 @@ public class NacosConfig {
     private ConfigManagerProperties configManagerProperties;
 
     /**
-     * 创建Nacos ConfigService Bean
+     * 创建按命名空间缓存的Nacos ConfigService池
+     * 每个命名空间的客户端在首次使用时创建, 应用关闭时统一释放
      *
-     * @return ConfigService实例
-     * @throws NacosException Nacos异常
+     * @return ConfigService池
      */
-    @Bean
-    public ConfigService configService() throws NacosException {
-        Properties properties = new Properties();
-        properties.put("serverAddr", configManagerProperties.getNacos().getServerAddr());
-        properties.put("username", configManagerProperties.getNacos().getUsername());
-        properties.put("password", configManagerProperties.getNacos().getPassword());
-
-        ConfigService configService = NacosFactory.createConfigService(properties);
-        log.info("Nacos配置服务初始化成功, serverAddr: {}",
+    @Bean(destroyMethod = "shutdown")
+    public NacosConfigServicePool nacosConfigServicePool() {
+        log.info("Nacos配置服务池初始化成功, serverAddr: {}",
             configManagerProperties.getNacos().getServerAddr());
 
-        return configService;
+        return new NacosConfigServicePool(configManagerProperties.getNacos());
     }
 }
@@ -0,0 +1,110 @@
+package io.github.fushuwei.nacos.config;
+
+import com.alibaba.nacos.api.NacosFactory;
+import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.api.exception.NacosException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nacos ConfigService池
+ * ConfigService绑定单个命名空间, 按Nacos命名空间ID懒加载创建并缓存, 不同命名空间的配置可并行发布
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+public class NacosConfigServicePool {
+
+    private final ConfigManagerProperties.NacosConfig nacosConfig;
+
+    /**
+     * Nacos命名空间ID -> ConfigService
+     */
+    private final Map<String, ConfigService> configServices = new ConcurrentHashMap<>();
+
+    public NacosConfigServicePool(ConfigManagerProperties.NacosConfig nacosConfig) {
+        this.nacosConfig = nacosConfig;
+    }
+
+    /**
+     * 获取命名空间对应的ConfigService, 不存在时创建
+     *
+     * @param namespace 配置命名空间(环境名), 为空时使用默认命名空间
+     * @return ConfigService实例
+     * @throws NacosException 创建客户端失败
+     */
+    public ConfigService get(String namespace) throws NacosException {
+        String namespaceId = resolveNamespaceId(namespace);
+
+        ConfigService configService = configServices.get(namespaceId);
+        if (configService != null) {
+            return configService;
+        }
+
+        synchronized (configServices) {
+            configService = configServices.get(namespaceId);
+            if (configService == null) {
+                configService = create(namespaceId);
+                configServices.put(namespaceId, configService);
+            }
+            return configService;
+        }
+    }
+
+    /**
+     * 解析配置命名空间对应的Nacos命名空间ID
+     *
+     * @param namespace 配置命名空间(环境名), 为空时使用默认命名空间
+     * @return Nacos命名空间ID, 空字符串表示public
+     */
+    public String resolveNamespaceId(String namespace) {
+        if (!StringUtils.hasText(namespace)) {
+            return nacosConfig.getNamespace() != null ? nacosConfig.getNamespace() : "";
+        }
+        return nacosConfig.getNamespaceMapping().getOrDefault(namespace, namespace);
+    }
+
+    /**
+     * 关闭全部ConfigService
+     */
+    public void shutdown() {
+        synchronized (configServices) {
+            configServices.forEach((namespaceId, configService) -> {
+                try {
+                    configService.shutDown();
+                } catch (NacosException e) {
+                    log.warn("关闭Nacos配置服务失败, namespace: {}, 错误: {}", namespaceId, e.getMessage());
+                }
+            });
+            configServices.clear();
+        }
+    }
+
+    /**
+     * 创建绑定指定命名空间的ConfigService
+     *
+     * @param namespaceId Nacos命名空间ID
+     * @return ConfigService实例
+     * @throws NacosException 创建客户端失败
+     */
+    private ConfigService create(String namespaceId) throws NacosException {
+        Properties properties = new Properties();
+        properties.put("serverAddr", nacosConfig.getServerAddr());
+        properties.put("username", nacosConfig.getUsername());
+        properties.put("password", nacosConfig.getPassword());
+        properties.put("configRequestTimeout", String.valueOf(nacosConfig.getRequestTimeout()));
+        if (StringUtils.hasText(namespaceId)) {
+            properties.put("namespace", namespaceId);
+        }
+
+        ConfigService configService = NacosFactory.createConfigService(properties);
+        log.info("Nacos配置服务创建成功, namespace: {}", StringUtils.hasText(namespaceId) ? namespaceId : "public");
+
+        return configService;
+    }
+}
@@ -1,18 +1,50 @@
 package io.github.fushuwei.nacos.controller;
 
+import cn.hutool.json.JSONUtil;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.BackupCleanupProgress;
+import io.github.fushuwei.nacos.entity.BackupVersion;
+import io.github.fushuwei.nacos.entity.ConfigDrift;
 import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.ConfigSummary;
+import io.github.fushuwei.nacos.entity.OutboxEntry;
+import io.github.fushuwei.nacos.entity.RestoreReport;
+import io.github.fushuwei.nacos.entity.SyncJob;
+import io.github.fushuwei.nacos.entity.SyncScope;
+import io.github.fushuwei.nacos.service.BackupRetentionService;
+import io.github.fushuwei.nacos.service.ClusterReplicationService;
 import io.github.fushuwei.nacos.service.ConfigBackupService;
+import io.github.fushuwei.nacos.service.ConfigCatalogService;
+import io.github.fushuwei.nacos.service.ConfigDriftDetector;
 import io.github.fushuwei.nacos.service.ConfigFileService;
-import io.github.fushuwei.nacos.service.ConfigSyncService;
+import io.github.fushuwei.nacos.service.ConfigRestoreService;
+import io.github.fushuwei.nacos.service.ConfigSyncCoordinator;
+import io.github.fushuwei.nacos.service.NacosCallGuard;
+import io.github.fushuwei.nacos.service.NacosCallStatistics;
 import io.github.fushuwei.nacos.service.NacosConfigService;
+import io.github.fushuwei.nacos.service.NacosOpenApiClient;
+import io.github.fushuwei.nacos.service.PublishOutbox;
+import io.github.fushuwei.nacos.service.RemoteConfigMirror;
+import io.github.fushuwei.nacos.service.SyncJobService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * 配置管理控制器
@@ -25,34 +57,88 @@ import java.util.Map;
 @RequestMapping("/api/config")
 public class ConfigController {
 
+    /**
+     * 同步指定配置时等待结果的最长时间(毫秒)
+     */
+    private static final long SPECIFIC_SYNC_WAIT_MILLIS = 30000;
+
+    /**
+     * 恢复任务提交后的提示: 恢复的配置在清除漂移记录前不参与同步
+     */
+    private static final String RESTORE_SUBMITTED_MESSAGE =
+        "恢复任务已提交; 恢复的内容与本地文件不一致的配置将暂停同步, 确认后通过 DELETE /drift 清除记录或写回本地以恢复同步";
+
     @Autowired
-    private ConfigSyncService configSyncService;
+    private ConfigManagerProperties configManagerProperties;
 
     @Autowired
     private ConfigFileService configFileService;
 
+    @Autowired
+    private ConfigCatalogService configCatalogService;
+
     @Autowired
     private NacosConfigService nacosConfigService;
 
     @Autowired
     private ConfigBackupService configBackupService;
 
+    @Autowired
+    private BackupRetentionService backupRetentionService;
+
+    @Autowired
+    private ConfigRestoreService configRestoreService;
+
+    @Autowired
+    private NacosCallStatistics nacosCallStatistics;
+
+    @Autowired
+    private NacosCallGuard nacosCallGuard;
+
+    @Autowired
+    private NacosOpenApiClient nacosOpenApiClient;
+
+    @Autowired
+    private RemoteConfigMirror remoteConfigMirror;
+
+    @Autowired
+    private ConfigDriftDetector configDriftDetector;
+
+    @Autowired
+    private PublishOutbox publishOutbox;
+
+    @Autowired
+    private SyncJobService syncJobService;
+
+    @Autowired
+    private ConfigSyncCoordinator configSyncCoordinator;
+
+    @Autowired
+    private ClusterReplicationService clusterReplicationService;
+
     /**
-     * 手动触发配置同步
+     * 提交同步任务(后台执行), 可指定环境; 正在执行的同步已包含该范围时关联到该任务
      */
     @PostMapping("/sync")
-    public ResponseEntity<Map<String, Object>> manualSync() {
+    public ResponseEntity<Map<String, Object>> manualSync(
+        @RequestParam(required = false) String environment) {
+
         Map<String, Object> result = new HashMap<>();
 
         try {
-            String syncResult = configSyncService.manualSync();
+            log.info("收到手动同步请求, 环境: {}", environment != null ? environment : "全部");
+            SyncScope scope = environment != null ? SyncScope.ofEnvironment(environment) : SyncScope.fullScope();
+            SyncJob job = configSyncCoordinator.trigger(scope, true);
+
             result.put("success", true);
-            result.put("message", syncResult);
+            result.put("message", "同步任务已提交");
+            result.put("jobId", job.getId());
+            result.put("data", job);
             result.put("timestamp", System.currentTimeMillis());
 
-            return ResponseEntity.ok(result);
+            return ResponseEntity.accepted().body(result);
         } catch (Exception e) {
-            log.error("手动同步失败", e);
+            log.error("提交同步任务失败", e);
             result.put("success", false);
             result.put("message", "同步失败: " + e.getMessage());
 
@@ -60,6 +146,51 @@ public class ConfigController {
         }
     }
 
+    /**
+     * 查询同步任务进度
+     */
+    @GetMapping("/sync/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getSyncJob(@PathVariable String jobId) {
+        Map<String, Object> result = new HashMap<>();
+
+        SyncJob job = syncJobService.getJob(jobId);
+        if (job == null) {
+            result.put("success", false);
+            result.put("message", "同步任务不存在: " + jobId);
+
+            return ResponseEntity.status(404).body(result);
+        }
+
+        result.put("success", true);
+        result.put("data", job);
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 取消同步任务
+     */
+    @DeleteMapping("/sync/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> cancelSyncJob(@PathVariable String jobId) {
+        Map<String, Object> result = new HashMap<>();
+
+        SyncJob job = syncJobService.cancel(jobId);
+        if (job == null) {
+            result.put("success", false);
+            result.put("message", "同步任务不存在: " + jobId);
+
+            return ResponseEntity.status(404).body(result);
+        }
+
+        result.put("success", true);
+        result.put("message", job.isCancelRequested() && job.getEndTime() == 0 ? "已请求取消同步任务" : "同步任务已结束");
+        result.put("data", job);
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 同步指定配置
      */
@@ -72,7 +203,20 @@ public class ConfigController {
         Map<String, Object> result = new HashMap<>();
 
         try {
-            boolean success = configSyncService.syncSpecificConfig(environment, appName, configName);
+            CompletableFuture<Boolean> future = configSyncCoordinator.syncSpecificConfig(environment, appName, configName);
+
+            // 有同步正在执行时需等待其结束, 超过等待时间后在后台继续执行
+            boolean success;
+            try {
+                success = future.get(SPECIFIC_SYNC_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                result.put("success", true);
+                result.put("message", "同步正在执行，指定配置已排队，将在其后同步");
+                result.put("timestamp", System.currentTimeMillis());
+
+                return ResponseEntity.accepted().body(result);
+            }
+
             result.put("success", success);
             result.put("message", success ? "指定配置同步成功" : "指定配置同步失败");
             result.put("timestamp", System.currentTimeMillis());
@@ -88,17 +232,31 @@ public class ConfigController {
     }
 
     /**
-     * 扫描配置文件列表
+     * 扫描配置文件列表(分页, 仅返回元数据)
      */
     @GetMapping("/scan")
-    public ResponseEntity<Map<String, Object>> scanConfigs() {
+    public ResponseEntity<Map<String, Object>> scanConfigs(
+        @RequestParam(defaultValue = "1") int page,
+        @RequestParam(defaultValue = "100") int size,
+        @RequestParam(defaultValue = "false") boolean refresh) {
+
         Map<String, Object> result = new HashMap<>();
 
         try {
-            List<ConfigMetadata> configList = configFileService.scanConfigFiles();
+            List<ConfigMetadata> configList = refresh ? configCatalogService.refresh() : configCatalogService.list();
+
+            int pageSize = Math.max(1, Math.min(size, 1000));
+            int fromIndex = Math.min((Math.max(page, 1) - 1) * pageSize, configList.size());
+            int toIndex = Math.min(fromIndex + pageSize, configList.size());
+
+            List<ConfigSummary> data = configList.subList(fromIndex, toIndex).stream()
+                .map(ConfigSummary::of)
+                .collect(Collectors.toList());
 
             result.put("success", true);
-            result.put("data", configList);
+            result.put("data", data);
+            result.put("page", Math.max(page, 1));
+            result.put("size", pageSize);
             result.put("total", configList.size());
             result.put("timestamp", System.currentTimeMillis());
 
@@ -112,18 +270,47 @@ public class ConfigController {
         }
     }
 
+    /**
+     * 流式扫描配置文件(NDJSON, 每行一个配置摘要, 边扫描边输出)
+     */
+    @GetMapping(value = "/scan/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> scanConfigsStream() {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            try {
+                configFileService.scanConfigFiles(config -> {
+                    try {
+                        writer.write(JSONUtil.toJsonStr(ConfigSummary.of(config)));
+                        writer.write('\n');
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+
     /**
      * 获取Nacos中的配置内容
      */
     @GetMapping("/nacos")
     public ResponseEntity<Map<String, Object>> getNacosConfig(
+        @RequestParam(required = false) String namespace,
         @RequestParam String dataId,
         @RequestParam(defaultValue = "DEFAULT_GROUP") String group) {
 
         Map<String, Object> result = new HashMap<>();
 
         try {
-            String content = nacosConfigService.getConfig(dataId, group, 5000);
+            String content = nacosConfigService.getConfig(namespace, dataId, group);
 
             result.put("success", true);
             result.put("dataId", dataId);
@@ -142,18 +329,36 @@ public class ConfigController {
         }
     }
 
+    /**
+     * 获取Nacos远程调用统计
+     */
+    @GetMapping("/nacos/stats")
+    public ResponseEntity<Map<String, Object>> getNacosStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", nacosCallStatistics.snapshot());
+        result.put("guard", nacosCallGuard.snapshot());
+        result.put("openApiGuard", nacosOpenApiClient.guardSnapshot());
+        result.put("mirror", remoteConfigMirror.snapshot());
+        result.put("targets", clusterReplicationService.snapshot());
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 删除Nacos中的配置
      */
     @DeleteMapping("/nacos")
     public ResponseEntity<Map<String, Object>> removeNacosConfig(
+        @RequestParam(required = false) String namespace,
         @RequestParam String dataId,
         @RequestParam(defaultValue = "DEFAULT_GROUP") String group) {
 
         Map<String, Object> result = new HashMap<>();
 
         try {
-            boolean success = nacosConfigService.removeConfig(dataId, group);
+            boolean success = nacosConfigService.removeConfig(namespace, dataId, group);
 
             result.put("success", success);
             result.put("dataId", dataId);
@@ -172,25 +377,26 @@ public class ConfigController {
     }
 
     /**
-     * 清理过期备份文件
+     * 触发过期备份清理(后台执行)
      */
     @PostMapping("/backup/cleanup")
     public ResponseEntity<Map<String, Object>> cleanupBackups(
-        @RequestParam(defaultValue = "7") int retentionDays) {
+        @RequestParam(required = false) Integer retentionDays) {
 
         Map<String, Object> result = new HashMap<>();
 
         try {
-            configBackupService.cleanupExpiredBackups(retentionDays);
+            int days = retentionDays != null ? retentionDays : configManagerProperties.getBackupRetentionDays();
+            BackupCleanupProgress progress = backupRetentionService.trigger(days);
 
             result.put("success", true);
-            result.put("message", "备份文件清理完成");
-            result.put("retentionDays", retentionDays);
+            result.put("message", "备份清理已在后台执行");
+            result.put("progress", progress);
             result.put("timestamp", System.currentTimeMillis());
 
-            return ResponseEntity.ok(result);
+            return ResponseEntity.accepted().body(result);
         } catch (Exception e) {
-            log.error("清理备份文件失败", e);
+            log.error("触发备份清理失败", e);
             result.put("success", false);
             result.put("message", "清理失败: " + e.getMessage());
 
@@ -198,6 +404,202 @@ public class ConfigController {
         }
     }
 
+    /**
+     * 查询备份清理进度
+     */
+    @GetMapping("/backup/cleanup/status")
+    public ResponseEntity<Map<String, Object>> getCleanupStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("progress", backupRetentionService.getProgress());
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 查询配置的备份版本列表(指定复制目标名称时查询该目标集群覆盖前的备份)
+     */
+    @GetMapping("/backup/versions")
+    public ResponseEntity<Map<String, Object>> getBackupVersions(
+        @RequestParam String namespace,
+        @RequestParam String dataId,
+        @RequestParam(defaultValue = "DEFAULT_GROUP") String group,
+        @RequestParam(required = false) String cluster) {
+
+        Map<String, Object> result = new HashMap<>();
+
+        List<BackupVersion> versions = configBackupService.getVersions(cluster, namespace, group, dataId);
+        result.put("success", true);
+        result.put("data", versions);
+        result.put("total", versions.size());
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 将单个配置恢复到指定时间点(后台执行, 返回任务ID)
+     * 恢复的内容与本地文件不一致时记录为恢复产生的漂移, 清除漂移记录(DELETE /drift)或写回本地前同步不会覆盖恢复的内容
+     */
+    @PostMapping("/restore")
+    public ResponseEntity<Map<String, Object>> restoreConfig(
+        @RequestParam String namespace,
+        @RequestParam String dataId,
+        @RequestParam(defaultValue = "DEFAULT_GROUP") String group,
+        @RequestParam long time) {
+
+        Map<String, Object> result = new HashMap<>();
+
+        try {
+            RestoreReport report = configRestoreService.restoreConfig(namespace, group, dataId, time);
+
+            result.put("success", true);
+            result.put("message", RESTORE_SUBMITTED_MESSAGE);
+            result.put("restoreId", report.getId());
+            result.put("data", report);
+            result.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.accepted().body(result);
+        } catch (Exception e) {
+            log.error("恢复配置失败", e);
+            result.put("success", false);
+            result.put("message", "恢复失败: " + e.getMessage());
+
+            return ResponseEntity.status(500).body(result);
+        }
+    }
+
+    /**
+     * 将环境(可选应用)下的全部配置恢复到指定时间点(后台执行, 返回任务ID)
+     * 恢复的配置同样在清除漂移记录前暂停同步
+     */
+    @PostMapping("/restore/environment")
+    public ResponseEntity<Map<String, Object>> restoreEnvironment(
+        @RequestParam String environment,
+        @RequestParam(required = false) String appName,
+        @RequestParam long time) {
+
+        Map<String, Object> result = new HashMap<>();
+
+        try {
+            RestoreReport report = configRestoreService.restoreEnvironment(environment, appName, time);
+
+            result.put("success", true);
+            result.put("message", RESTORE_SUBMITTED_MESSAGE);
+            result.put("restoreId", report.getId());
+            result.put("data", report);
+            result.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.accepted().body(result);
+        } catch (Exception e) {
+            log.error("恢复环境配置失败", e);
+            result.put("success", false);
+            result.put("message", "恢复失败: " + e.getMessage());
+
+            return ResponseEntity.status(500).body(result);
+        }
+    }
+
+    /**
+     * 查询恢复任务结果
+     */
+    @GetMapping("/restore/jobs/{restoreId}")
+    public ResponseEntity<Map<String, Object>> getRestoreJob(@PathVariable String restoreId) {
+        Map<String, Object> result = new HashMap<>();
+
+        RestoreReport report = configRestoreService.getReport(restoreId);
+        if (report == null) {
+            result.put("success", false);
+            result.put("message", "恢复任务不存在: " + restoreId);
+
+            return ResponseEntity.status(404).body(result);
+        }
+
+        result.put("success", report.isRunning() || report.getFailedCount() == 0);
+        result.put("data", report);
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 查询远程配置漂移(被控制台等外部修改或恢复到历史版本, 且与本地文件不一致的配置)
+     */
+    @GetMapping("/drift")
+    public ResponseEntity<Map<String, Object>> listDrifts() {
+        Map<String, Object> result = new HashMap<>();
+        List<ConfigDrift> drifts = configDriftDetector.list();
+        result.put("success", true);
+        result.put("total", drifts.size());
+        result.put("data", drifts);
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 将漂移配置的远程内容写回本地文件(仅文件系统模式, 即WATCH同步模式)
+     */
+    @PostMapping("/drift/write-back")
+    public ResponseEntity<Map<String, Object>> writeBackDrift(
+        @RequestParam(required = false) String namespace,
+        @RequestParam String dataId,
+        @RequestParam(defaultValue = "DEFAULT_GROUP") String group) {
+
+        Map<String, Object> result = new HashMap<>();
+
+        try {
+            boolean success = configDriftDetector.writeBack(namespace, group, dataId);
+
+            result.put("success", success);
+            result.put("message", success ? "远程配置已写回本地" : "写回失败, 仅WATCH模式(文件系统)且远程配置存在时可写回");
+            result.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("写回本地配置失败", e);
+            result.put("success", false);
+            result.put("message", "写回失败: " + e.getMessage());
+
+            return ResponseEntity.status(500).body(result);
+        }
+    }
+
+    /**
+     * 清除漂移记录(确认以本地为准, 下次同步覆盖远程配置)
+     */
+    @DeleteMapping("/drift")
+    public ResponseEntity<Map<String, Object>> resolveDrift(
+        @RequestParam(required = false) String namespace,
+        @RequestParam String dataId,
+        @RequestParam(defaultValue = "DEFAULT_GROUP") String group) {
+
+        Map<String, Object> result = new HashMap<>();
+        boolean success = configDriftDetector.resolve(namespace, group, dataId) != null;
+
+        result.put("success", success);
+        result.put("message", success ? "漂移记录已清除" : "漂移记录不存在");
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 查询发布发件箱中等待重放的配置
+     */
+    @GetMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> listOutbox() {
+        Map<String, Object> result = new HashMap<>();
+        List<OutboxEntry> entries = publishOutbox.list();
+        result.put("success", true);
+        result.put("total", entries.size());
+        result.put("data", entries);
+        result.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * 健康检查
      */
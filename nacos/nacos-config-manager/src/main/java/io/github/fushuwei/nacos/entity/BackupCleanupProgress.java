@@ -0,0 +1,68 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.Data;
+
+/**
+ * 备份清理进度
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+public class BackupCleanupProgress {
+
+    /**
+     * 是否正在清理
+     */
+    private volatile boolean running;
+
+    /**
+     * 保留天数
+     */
+    private volatile int retentionDays;
+
+    /**
+     * 开始时间
+     */
+    private volatile long startTime;
+
+    /**
+     * 结束时间
+     */
+    private volatile long endTime;
+
+    /**
+     * 过期的索引分段数
+     */
+    private volatile int totalSegments;
+
+    /**
+     * 已处理的索引分段数
+     */
+    private volatile int processedSegments;
+
+    /**
+     * 删除的过期版本数
+     */
+    private volatile long expiredVersions;
+
+    /**
+     * 保留的版本数(已过期但仍是配置的最新版本)
+     */
+    private volatile long retainedVersions;
+
+    /**
+     * 删除的备份对象数
+     */
+    private volatile long deletedObjects;
+
+    /**
+     * 删除的旧版备份文件数(*.bak)
+     */
+    private volatile long deletedLegacyFiles;
+
+    /**
+     * 结果信息
+     */
+    private volatile String message;
+}
@@ -0,0 +1,13 @@
+package io.github.fushuwei.nacos.entity;
+
+/**
+ * 备份记录类型枚举
+ *
+ * @author example
+ * @version 1.0.0
+ */
+public enum BackupKind {
+    BACKUP,     // 覆盖或删除前的远程内容, 在记录时间之前生效(之后没有发布或删除时仍生效)
+    PUBLISH,    // 发布到远程的内容, 从记录时间开始生效
+    DELETE      // 远程配置已删除(内容为删除前的内容), 从记录时间开始配置不存在
+}
@@ -0,0 +1,64 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 配置备份版本实体类(备份索引中的一条记录)
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackupVersion {
+
+    /**
+     * 记录时间
+     */
+    private long timestamp;
+
+    /**
+     * 内容哈希(SHA-256), 指向备份对象
+     */
+    private String hash;
+
+    /**
+     * 环境
+     */
+    private String environment;
+
+    /**
+     * 应用名称
+     */
+    private String appName;
+
+    /**
+     * 命名空间
+     */
+    private String namespace;
+
+    /**
+     * 分组
+     */
+    private String group;
+
+    /**
+     * 数据ID
+     */
+    private String dataId;
+
+    /**
+     * 记录类型
+     */
+    private BackupKind kind;
+
+    /**
+     * 复制目标集群名称, 主集群的记录为空
+     */
+    private String cluster;
+}
@@ -0,0 +1,29 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 配置内容实体类(单次读取本地配置得到的内容及其MD5)
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigContent {
+
+    /**
+     * 配置内容
+     */
+    private String content;
+
+    /**
+     * 内容MD5(与本次读取的内容对应)
+     */
+    private String md5;
+}
@@ -0,0 +1,51 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 配置键级差异实体类(本地配置相对远程配置)
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigDiff {
+
+    /**
+     * 数据ID
+     */
+    private String dataId;
+
+    /**
+     * 分组
+     */
+    private String group;
+
+    /**
+     * 结构是否等价(仅空白、注释或键顺序不同)
+     */
+    private boolean equivalent;
+
+    /**
+     * 新增的键
+     */
+    private List<String> addedKeys;
+
+    /**
+     * 删除的键
+     */
+    private List<String> removedKeys;
+
+    /**
+     * 值变化的键
+     */
+    private List<String> changedKeys;
+}
@@ -0,0 +1,69 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 配置漂移实体类(远程配置被外部修改, 与本地文件不一致)
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigDrift {
+
+    /**
+     * 命名空间
+     */
+    private String namespace;
+
+    /**
+     * 分组
+     */
+    private String group;
+
+    /**
+     * 数据ID
+     */
+    private String dataId;
+
+    /**
+     * 本地配置文件路径
+     */
+    private String filePath;
+
+    /**
+     * 本地内容MD5
+     */
+    private String localMd5;
+
+    /**
+     * 远程内容MD5, 远程配置被删除时为空
+     */
+    private String remoteMd5;
+
+    /**
+     * 远程配置是否存在(被外部删除时为false)
+     */
+    private boolean remoteExists;
+
+    /**
+     * 是否由恢复操作产生(远程已恢复到历史版本), 清除前跳过同步, 不受漂移处理策略影响
+     */
+    private boolean restored;
+
+    /**
+     * 检测时间
+     */
+    private long detectTime;
+
+    /**
+     * 本地相对远程的键级差异, 无法语义比对时为空
+     */
+    private ConfigDiff diff;
+}
@@ -33,7 +33,7 @@ public class ConfigMetadata {
     private String namespace;
 
     /**
-     * 配置内容
+     * 配置内容, 扫描时不加载, 发布时按需读取
      */
     private String content;
 
@@ -52,6 +52,11 @@ public class ConfigMetadata {
      */
     private String appName;
 
+    /**
+     * 配置名称(不带扩展名的文件名)
+     */
+    private String configName;
+
     /**
      * 环境
      */
@@ -62,6 +67,16 @@ public class ConfigMetadata {
      */
     private String filePath;
 
+    /**
+     * 文件位置(资源URI), 用于按需读取内容
+     */
+    private String location;
+
+    /**
+     * 文件大小(字节)
+     */
+    private Long size;
+
     /**
      * 文件最后修改时间
      */
@@ -0,0 +1,90 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 配置摘要实体类(不含配置内容)
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigSummary {
+
+    /**
+     * 数据ID
+     */
+    private String dataId;
+
+    /**
+     * 分组
+     */
+    private String group;
+
+    /**
+     * 命名空间
+     */
+    private String namespace;
+
+    /**
+     * 配置类型
+     */
+    private String type;
+
+    /**
+     * 应用名称
+     */
+    private String appName;
+
+    /**
+     * 环境
+     */
+    private String environment;
+
+    /**
+     * 文件路径
+     */
+    private String filePath;
+
+    /**
+     * 文件大小(字节)
+     */
+    private Long size;
+
+    /**
+     * 文件最后修改时间
+     */
+    private Long lastModified;
+
+    /**
+     * 内容MD5
+     */
+    private String contentMd5;
+
+    /**
+     * 由配置元数据生成摘要
+     *
+     * @param config 配置元数据
+     * @return 配置摘要
+     */
+    public static ConfigSummary of(ConfigMetadata config) {
+        return ConfigSummary.builder()
+            .dataId(config.getDataId())
+            .group(config.getGroup())
+            .namespace(config.getNamespace())
+            .type(config.getType())
+            .appName(config.getAppName())
+            .environment(config.getEnvironment())
+            .filePath(config.getFilePath())
+            .size(config.getSize())
+            .lastModified(config.getLastModified())
+            .contentMd5(config.getContentMd5())
+            .build();
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.Data;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 配置批量导入结果
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+public class ImportResult {
+
+    /**
+     * 导入成功数
+     */
+    private int successCount;
+
+    /**
+     * 已存在而跳过数
+     */
+    private int skipCount;
+
+    /**
+     * 无法识别而未导入数
+     */
+    private int unrecognizedCount;
+
+    /**
+     * 导入失败的配置(group/dataId)
+     */
+    private Set<String> failedKeys = new HashSet<>();
+
+    /**
+     * 已存在而跳过的配置(group/dataId)
+     */
+    private Set<String> skippedKeys = new HashSet<>();
+
+    /**
+     * 无法解析或校验而未导入的配置(group/dataId)
+     */
+    private Set<String> unrecognizedKeys = new HashSet<>();
+}
@@ -0,0 +1,44 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 发件箱待发布项实体类
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEntry {
+
+    /**
+     * 配置标识(命名空间/分组/dataId)
+     */
+    private String key;
+
+    /**
+     * 配置元数据(不含内容, 重放时按文件位置读取当前内容)
+     */
+    private ConfigMetadata config;
+
+    /**
+     * 加入发件箱时间
+     */
+    private long enqueueTime;
+
+    /**
+     * 已重放次数
+     */
+    private int attempts;
+
+    /**
+     * 下次重放时间
+     */
+    private long nextAttemptTime;
+}
@@ -0,0 +1,13 @@
+package io.github.fushuwei.nacos.entity;
+
+/**
+ * 发布结果枚举
+ *
+ * @author example
+ * @version 1.0.0
+ */
+public enum PublishResult {
+    SUCCESS,    // 发布成功
+    CONFLICT,   // CAS冲突, 远程配置已被修改
+    FAILED      // 发布失败
+}
@@ -0,0 +1,49 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 远程配置状态实体类(单次读取Nacos得到的配置快照)
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RemoteConfigState {
+
+    /**
+     * 数据ID
+     */
+    private String dataId;
+
+    /**
+     * 分组
+     */
+    private String group;
+
+    /**
+     * 远程配置内容
+     */
+    private String content;
+
+    /**
+     * 远程内容MD5
+     */
+    private String md5;
+
+    /**
+     * 远程配置是否存在
+     */
+    private boolean exists;
+
+    /**
+     * 读取是否失败(失败时无法判断远程配置是否存在)
+     */
+    private boolean fetchFailed;
+}
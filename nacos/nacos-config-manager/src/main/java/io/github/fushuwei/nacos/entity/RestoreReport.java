@@ -0,0 +1,77 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 配置恢复结果报告
+ * 恢复在后台执行, 执行期间可按任务ID查询, 结束后填写各项计数
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+public class RestoreReport {
+
+    /**
+     * 恢复任务ID
+     */
+    private String id;
+
+    /**
+     * 是否正在恢复
+     */
+    private volatile boolean running;
+
+    /**
+     * 恢复目标时间
+     */
+    private long targetTime;
+
+    /**
+     * 配置总数
+     */
+    private int total;
+
+    /**
+     * 恢复成功数
+     */
+    private volatile int restoredCount;
+
+    /**
+     * 内容与目标版本一致数
+     */
+    private volatile int unchangedCount;
+
+    /**
+     * 目标时间无可用版本数(当时不存在或已删除)
+     */
+    private volatile int missingCount;
+
+    /**
+     * 失败数
+     */
+    private volatile int failedCount;
+
+    /**
+     * 恢复失败的配置(namespace/group/dataId)
+     */
+    private volatile List<String> failedConfigs = new ArrayList<>();
+
+    /**
+     * 开始时间
+     */
+    private long startTime;
+
+    /**
+     * 耗时(毫秒)
+     */
+    private volatile long duration;
+
+    /**
+     * 结果信息
+     */
+    private volatile String message;
+}
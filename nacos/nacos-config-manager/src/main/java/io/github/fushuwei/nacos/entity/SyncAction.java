@@ -0,0 +1,14 @@
+package io.github.fushuwei.nacos.entity;
+
+/**
+ * 同步动作枚举
+ *
+ * @author example
+ * @version 1.0.0
+ */
+public enum SyncAction {
+    CREATE,     // 远程不存在, 新建
+    UPDATE,     // 远程内容不一致, 覆盖
+    UNCHANGED,  // 内容一致, 无需发布
+    SKIP        // 远程已存在且不允许覆盖
+}
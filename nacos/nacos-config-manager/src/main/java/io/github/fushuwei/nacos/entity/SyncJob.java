@@ -0,0 +1,99 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.Data;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 配置同步任务
+ * 同步线程并发更新进度, 进度字段均为线程安全
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+public class SyncJob {
+
+    /**
+     * 任务ID
+     */
+    private String id;
+
+    /**
+     * 同步范围(等待执行期间会合并新的触发)
+     */
+    private volatile SyncScope scope;
+
+    /**
+     * 任务状态
+     */
+    private volatile SyncJobStatus status;
+
+    /**
+     * 待同步配置总数(扫描完成前为0)
+     */
+    private volatile int total;
+
+    /**
+     * 已处理配置数
+     */
+    private final AtomicInteger processed = new AtomicInteger(0);
+
+    /**
+     * 最近处理的数据ID
+     */
+    private volatile String currentDataId;
+
+    /**
+     * 是否已请求取消
+     */
+    private volatile boolean cancelRequested;
+
+    /**
+     * 提交时间
+     */
+    private long submitTime;
+
+    /**
+     * 开始时间
+     */
+    private volatile long startTime;
+
+    /**
+     * 结束时间
+     */
+    private volatile long endTime;
+
+    /**
+     * 同步结果报告(任务结束后生成)
+     */
+    private volatile SyncReport report;
+
+    /**
+     * 结果信息
+     */
+    private volatile String message;
+
+    /**
+     * 记录一个配置处理完成
+     *
+     * @param dataId 数据ID
+     */
+    public void markProcessed(String dataId) {
+        currentDataId = dataId;
+        processed.incrementAndGet();
+    }
+
+    /**
+     * 处理速率(个/秒)
+     *
+     * @return 处理速率
+     */
+    public double getThroughput() {
+        if (startTime == 0) {
+            return 0;
+        }
+        long elapsed = (endTime > 0 ? endTime : System.currentTimeMillis()) - startTime;
+        return elapsed > 0 ? processed.get() * 1000.0 / elapsed : 0;
+    }
+}
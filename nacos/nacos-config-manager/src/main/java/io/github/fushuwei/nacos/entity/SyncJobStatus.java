@@ -0,0 +1,15 @@
+package io.github.fushuwei.nacos.entity;
+
+/**
+ * 同步任务状态枚举
+ *
+ * @author example
+ * @version 1.0.0
+ */
+public enum SyncJobStatus {
+    PENDING,    // 等待执行(合并了正在执行期间的触发)
+    RUNNING,    // 执行中
+    COMPLETED,  // 已完成
+    CANCELLED,  // 已取消
+    FAILED      // 执行异常
+}
@@ -0,0 +1,39 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 同步计划项实体类
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncPlanItem {
+
+    /**
+     * 本地配置元数据
+     */
+    private ConfigMetadata config;
+
+    /**
+     * 远程配置状态, 为空表示未能批量拉取, 需要在执行时单独读取
+     */
+    private RemoteConfigState remote;
+
+    /**
+     * 同步动作, 为空表示执行时再决策
+     */
+    private SyncAction action;
+
+    /**
+     * 发布前语义比对得到的键级差异, 未比对时为空
+     */
+    private ConfigDiff diff;
+}
@@ -0,0 +1,76 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 配置同步结果报告
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+public class SyncReport {
+
+    /**
+     * 配置总数
+     */
+    private int total;
+
+    /**
+     * 发布成功数(内容有变更)
+     */
+    private int successCount;
+
+    /**
+     * 内容未变更数
+     */
+    private int unchangedCount;
+
+    /**
+     * 语义等价跳过发布数(仅空白、注释或键顺序变化, 计入未变更数)
+     */
+    private int equivalentCount;
+
+    /**
+     * 跳过数
+     */
+    private int skippedCount;
+
+    /**
+     * 失败数
+     */
+    private int failedCount;
+
+    /**
+     * 远程读取次数
+     */
+    private long remoteReadCount;
+
+    /**
+     * 开始时间
+     */
+    private long startTime;
+
+    /**
+     * 耗时(毫秒)
+     */
+    private long duration;
+
+    /**
+     * 是否异常中止(同步计划、批量导入或等待结果时出现异常或被中断, 此时各计数无效)
+     */
+    private boolean aborted;
+
+    /**
+     * 发布前语义比对的键级差异
+     */
+    private List<ConfigDiff> diffs = new ArrayList<>();
+
+    /**
+     * 各复制目标集群的同步结果(以上统计为主集群结果)
+     */
+    private List<TargetSyncReport> targets = new ArrayList<>();
+}
@@ -0,0 +1,103 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.Data;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 同步范围
+ * 全量、指定环境或指定配置文件, 多次触发的范围可合并为一次同步
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+public class SyncScope {
+
+    /**
+     * 是否全量同步
+     */
+    private boolean full;
+
+    /**
+     * 需要同步的环境
+     */
+    private Set<String> environments = new TreeSet<>();
+
+    /**
+     * 需要同步的配置文件(相对文件路径)
+     */
+    private Set<String> filePaths = new TreeSet<>();
+
+    /**
+     * 全量同步
+     */
+    public static SyncScope fullScope() {
+        return new SyncScope().setFull(true);
+    }
+
+    /**
+     * 同步指定环境
+     *
+     * @param environment 环境
+     */
+    public static SyncScope ofEnvironment(String environment) {
+        SyncScope scope = new SyncScope();
+        scope.getEnvironments().add(environment);
+        return scope;
+    }
+
+    /**
+     * 同步指定配置
+     *
+     * @param configs 配置元数据
+     */
+    public static SyncScope ofConfigs(Collection<ConfigMetadata> configs) {
+        SyncScope scope = new SyncScope();
+        configs.forEach(config -> scope.getFilePaths().add(config.getFilePath()));
+        return scope;
+    }
+
+    /**
+     * 合并另一个同步范围
+     *
+     * @param other 同步范围
+     * @return 当前范围
+     */
+    public SyncScope merge(SyncScope other) {
+        if (full || other.full) {
+            full = true;
+            environments.clear();
+            filePaths.clear();
+            return this;
+        }
+        environments.addAll(other.environments);
+        filePaths.addAll(other.filePaths);
+        return this;
+    }
+
+    /**
+     * 是否包含另一个同步范围
+     *
+     * @param other 同步范围
+     * @return 是否包含
+     */
+    public boolean covers(SyncScope other) {
+        if (full) {
+            return true;
+        }
+        return !other.full && environments.containsAll(other.environments) && filePaths.containsAll(other.filePaths);
+    }
+
+    /**
+     * 配置是否在同步范围内
+     *
+     * @param config 配置元数据
+     * @return 是否在范围内
+     */
+    public boolean includes(ConfigMetadata config) {
+        return full || environments.contains(config.getEnvironment()) || filePaths.contains(config.getFilePath());
+    }
+}
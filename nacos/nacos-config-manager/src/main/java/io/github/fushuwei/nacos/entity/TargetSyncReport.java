@@ -0,0 +1,53 @@
+package io.github.fushuwei.nacos.entity;
+
+import lombok.Data;
+
+/**
+ * 复制目标集群同步结果
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+public class TargetSyncReport {
+
+    /**
+     * 目标名称
+     */
+    private String target;
+
+    /**
+     * 配置总数
+     */
+    private int total;
+
+    /**
+     * 发布成功数(内容有变更)
+     */
+    private int successCount;
+
+    /**
+     * 内容未变更数(含语义等价)
+     */
+    private int unchangedCount;
+
+    /**
+     * 跳过数
+     */
+    private int skippedCount;
+
+    /**
+     * 失败数
+     */
+    private int failedCount;
+
+    /**
+     * 耗时(毫秒)
+     */
+    private long duration;
+
+    /**
+     * 是否滞后(等待超时时仍未完成, 在后台继续复制, 此时各计数无效)
+     */
+    private boolean lagging;
+}
@@ -0,0 +1,107 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.core.thread.ThreadUtil;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.BackupCleanupProgress;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 备份保留策略服务类
+ * 过期备份清理在后台线程中执行, 同一时刻只运行一次清理, 可通过进度查询清理状态
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class BackupRetentionService {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private ConfigBackupService configBackupService;
+
+    private final ExecutorService cleanupExecutor =
+        Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory("backup-cleanup-", true));
+
+    /**
+     * 最近一次(或正在进行的)清理进度
+     */
+    private volatile BackupCleanupProgress progress = new BackupCleanupProgress();
+
+    /**
+     * 定时清理过期备份
+     */
+    @Scheduled(initialDelayString = "#{${config.manager.backup-cleanup-interval:60} * 60 * 1000}",
+        fixedDelayString = "#{${config.manager.backup-cleanup-interval:60} * 60 * 1000}")
+    public void scheduledCleanup() {
+        if (!configManagerProperties.isBackupEnabled()) {
+            return;
+        }
+
+        log.info("开始定时清理过期备份");
+        trigger(configManagerProperties.getBackupRetentionDays());
+    }
+
+    /**
+     * 触发过期备份清理(后台执行)
+     * 已有清理在运行时不重复触发, 直接返回当前进度
+     *
+     * @param retentionDays 保留天数
+     * @return 清理进度
+     */
+    public synchronized BackupCleanupProgress trigger(int retentionDays) {
+        if (progress.isRunning()) {
+            log.info("过期备份清理正在进行中，忽略本次触发");
+            return progress;
+        }
+
+        BackupCleanupProgress current = new BackupCleanupProgress();
+        current.setRunning(true);
+        current.setRetentionDays(retentionDays);
+        current.setStartTime(System.currentTimeMillis());
+        progress = current;
+
+        cleanupExecutor.execute(() -> {
+            try {
+                configBackupService.cleanupExpiredBackups(retentionDays, current);
+                if (current.getMessage() == null) {
+                    current.setMessage("备份清理完成");
+                }
+            } catch (Exception e) {
+                log.error("清理过期备份失败", e);
+                current.setMessage("清理失败: " + e.getMessage());
+            } finally {
+                current.setEndTime(System.currentTimeMillis());
+                current.setRunning(false);
+            }
+        });
+
+        return current;
+    }
+
+    /**
+     * 获取最近一次清理进度
+     *
+     * @return 清理进度
+     */
+    public BackupCleanupProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * 停止清理线程
+     */
+    @PreDestroy
+    public void shutdown() {
+        cleanupExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,479 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.alibaba.nacos.api.config.ConfigService;
+import com.alibaba.nacos.api.exception.NacosException;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.config.NacosConfigServicePool;
+import io.github.fushuwei.nacos.entity.ConfigContent;
+import io.github.fushuwei.nacos.entity.ConfigDiff;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.SyncJob;
+import io.github.fushuwei.nacos.entity.TargetSyncReport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 多集群复制服务类
+ * 将同一配置目录发布到各复制目标集群(如其他数据中心), 每个目标使用独立的ConfigService池、
+ * 有界发布队列、并发限制、调用保护与调用统计, 各目标独立推进, 慢集群不会阻塞主集群或其他目标;
+ * 每个目标同一时刻最多一次复制在执行、一次在等待, 执行期间的新触发合并到等待中的复制(配置取并集),
+ * 滞后的目标不会堆积复制任务;
+ * 覆盖目标集群上的配置前先备份现有内容(按目标名称单独记录, 可按目标关闭);
+ * 目标集群发布失败不进入发布发件箱, 由下次同步重试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ClusterReplicationService {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private ConfigFileService configFileService;
+
+    @Autowired
+    private ConfigSemanticComparator configSemanticComparator;
+
+    @Autowired
+    private NacosConfigService nacosConfigService;
+
+    @Autowired
+    private ConfigBackupService configBackupService;
+
+    /**
+     * 复制目标
+     */
+    private final List<ReplicaTarget> targets = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        ConfigManagerProperties.NacosConfig primary = configManagerProperties.getNacos();
+        for (ConfigManagerProperties.ClusterTarget target : primary.getTargets()) {
+            if (!StringUtils.hasText(target.getServerAddr())) {
+                log.warn("复制目标未配置集群地址，忽略: {}", target.getName());
+                continue;
+            }
+            targets.add(new ReplicaTarget(target, primary));
+            log.info("复制目标集群已启用: {}, serverAddr: {}, 并发: {}, 队列容量: {}",
+                target.getName(), target.getServerAddr(), target.getMaxConcurrency(), target.getQueueCapacity());
+        }
+    }
+
+    /**
+     * 是否配置了复制目标
+     *
+     * @return 是否存在复制目标
+     */
+    public boolean hasTargets() {
+        return !targets.isEmpty();
+    }
+
+    /**
+     * 将配置列表复制到全部目标集群, 各目标并行、互不等待
+     * 目标正在复制时合并到该目标等待中的复制, 返回的结果为合并后那次复制的结果
+     *
+     * @param configList 配置元数据列表
+     * @param job 同步任务, 为空时不检查取消
+     * @return 目标名称 -> 同步结果
+     */
+    public Map<String, CompletableFuture<TargetSyncReport>> replicate(List<ConfigMetadata> configList, SyncJob job) {
+        if (targets.isEmpty() || configList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, CompletableFuture<TargetSyncReport>> futures = new LinkedHashMap<>();
+        for (ReplicaTarget target : targets) {
+            futures.put(target.name, target.trigger(configList, job));
+        }
+        return futures;
+    }
+
+    /**
+     * 获取各目标的调用保护状态与调用统计快照
+     *
+     * @return 目标名称 -> 快照
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (ReplicaTarget target : targets) {
+            Map<String, Object> targetSnapshot = new LinkedHashMap<>();
+            targetSnapshot.put("guard", target.guard.snapshot());
+            targetSnapshot.put("data", target.statistics.snapshot());
+            result.put(target.name, targetSnapshot);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ReplicaTarget target : targets) {
+            target.cancelPending();
+            target.feeder.shutdownNow();
+            target.publisher.shutdownNow();
+            target.pool.shutdown();
+        }
+    }
+
+    /**
+     * 复制结果枚举
+     */
+    private enum ReplicaResult {
+        SUCCESS,    // 发布成功
+        UNCHANGED,  // 内容未变更或语义等价
+        SKIPPED,    // 远程已存在且不允许覆盖
+        FAILED      // 发布失败
+    }
+
+    /**
+     * 一次复制: 待复制的配置(按文件位置去重, 后触发的元数据覆盖先触发的)与触发它的同步任务
+     */
+    private static class ReplicaRun {
+        private final Map<String, ConfigMetadata> configs = new LinkedHashMap<>();
+        private final List<SyncJob> jobs = new ArrayList<>();
+        private final CompletableFuture<TargetSyncReport> future = new CompletableFuture<>();
+
+        /**
+         * 是否有不可取消的触发(未关联同步任务)
+         */
+        private boolean uncancellable;
+
+        ReplicaRun merge(List<ConfigMetadata> configList, SyncJob job) {
+            configList.forEach(config -> configs.put(config.getLocation(), config));
+            if (job == null) {
+                uncancellable = true;
+            } else {
+                jobs.add(job);
+            }
+            return this;
+        }
+
+        /**
+         * 触发本次复制的同步任务均已请求取消时停止复制
+         */
+        boolean isCancelled() {
+            return !uncancellable && jobs.stream().allMatch(SyncJob::isCancelRequested);
+        }
+
+        /**
+         * 按配置分组: 同一dataId的配置在同一任务内按文件路径顺序发布, 与主集群一致
+         */
+        List<List<ConfigMetadata>> groups() {
+            return new ArrayList<>(configs.values().stream()
+                .sorted(Comparator.comparing(ConfigMetadata::getFilePath, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.groupingBy(config -> config.getNamespace() + "/" + config.getGroup() + "/" + config.getDataId(),
+                    LinkedHashMap::new, Collectors.toList()))
+                .values());
+        }
+    }
+
+    /**
+     * 复制目标: 独立的ConfigService池、发布线程(并发限制)、有界发布队列、调用保护与调用统计
+     */
+    private class ReplicaTarget {
+        private final String name;
+        private final NacosConfigServicePool pool;
+        private final int timeout;
+        private final boolean backupEnabled;
+        private final NacosCallGuard guard;
+        private final NacosCallStatistics statistics = new NacosCallStatistics();
+
+        /**
+         * 提交线程: 队列满时只阻塞本目标的提交
+         */
+        private final ExecutorService feeder;
+
+        /**
+         * 发布线程池: 线程数即并发限制
+         */
+        private final ThreadPoolExecutor publisher;
+
+        /**
+         * 正在执行的复制与等待中的复制(由本目标对象锁保护)
+         */
+        private ReplicaRun runningRun;
+
+        private ReplicaRun pendingRun;
+
+        ReplicaTarget(ConfigManagerProperties.ClusterTarget target, ConfigManagerProperties.NacosConfig primary) {
+            this.name = StringUtils.hasText(target.getName()) ? target.getName() : target.getServerAddr();
+            this.timeout = primary.getTimeout();
+            this.backupEnabled = target.isBackupEnabled();
+
+            ConfigManagerProperties.NacosConfig nacosConfig = new ConfigManagerProperties.NacosConfig()
+                .setServerAddr(target.getServerAddr())
+                .setUsername(StringUtils.hasText(target.getUsername()) ? target.getUsername() : primary.getUsername())
+                .setPassword(StringUtils.hasText(target.getPassword()) ? target.getPassword() : primary.getPassword())
+                .setTimeout(primary.getTimeout())
+                .setRequestTimeout(primary.getRequestTimeout())
+                .setNamespace(primary.getNamespace())
+                .setNamespaceMapping(target.getNamespaceMapping() != null ?
+                    target.getNamespaceMapping() : primary.getNamespaceMapping());
+            this.pool = new NacosConfigServicePool(nacosConfig);
+            this.guard = new NacosCallGuard(primary.getGuard());
+
+            int concurrency = Math.max(1, target.getMaxConcurrency());
+            this.feeder = Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory("replica-" + name + "-feeder-", true));
+            this.publisher = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, target.getQueueCapacity())),
+                ThreadUtil.newNamedThreadFactory("replica-" + name + "-", true),
+                (task, executor) -> {
+                    // 队列满时阻塞提交线程, 直到有空位
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("复制目标已关闭: " + name);
+                    }
+                    try {
+                        executor.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("提交复制任务被中断: " + name, e);
+                    }
+                });
+        }
+
+        /**
+         * 触发复制: 没有复制在执行时立即执行; 否则合并到等待中的复制, 当前复制结束后执行
+         *
+         * @return 负责这些配置的那次复制的结果
+         */
+        synchronized CompletableFuture<TargetSyncReport> trigger(List<ConfigMetadata> configList, SyncJob job) {
+            if (runningRun == null) {
+                runningRun = new ReplicaRun().merge(configList, job);
+                start(runningRun);
+                return runningRun.future;
+            }
+
+            if (pendingRun == null) {
+                pendingRun = new ReplicaRun();
+                log.info("复制目标正在复制，新触发进入等待: {}", name);
+            } else {
+                log.debug("复制目标正在复制，新触发已合并到等待中的复制: {}", name);
+            }
+            return pendingRun.merge(configList, job).future;
+        }
+
+        /**
+         * 提交复制到提交线程, 结束后启动等待中的复制
+         */
+        private void start(ReplicaRun run) {
+            try {
+                feeder.execute(() -> {
+                    try {
+                        run.future.complete(replicate(run));
+                    } catch (Throwable e) {
+                        run.future.completeExceptionally(e);
+                    } finally {
+                        onFinished();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                run.future.completeExceptionally(new IllegalStateException("复制目标已关闭: " + name, e));
+                runningRun = null;
+            }
+        }
+
+        /**
+         * 当前复制结束, 启动等待中的复制
+         */
+        private synchronized void onFinished() {
+            runningRun = pendingRun;
+            pendingRun = null;
+            if (runningRun != null) {
+                start(runningRun);
+            }
+        }
+
+        /**
+         * 关闭时结束等待中的复制
+         */
+        synchronized void cancelPending() {
+            if (pendingRun != null) {
+                pendingRun.future.completeExceptionally(new IllegalStateException("复制目标已关闭: " + name));
+                pendingRun = null;
+            }
+        }
+
+        /**
+         * 复制全部配置并汇总结果
+         */
+        TargetSyncReport replicate(ReplicaRun run) {
+            List<List<ConfigMetadata>> groups = run.groups();
+            long startTime = System.currentTimeMillis();
+            Map<ReplicaResult, AtomicInteger> counts = new LinkedHashMap<>();
+            for (ReplicaResult result : ReplicaResult.values()) {
+                counts.put(result, new AtomicInteger());
+            }
+
+            List<Future<?>> futures = new ArrayList<>(groups.size());
+            try {
+                for (List<ConfigMetadata> configs : groups) {
+                    futures.add(publisher.submit(() -> configs.forEach(config -> {
+                        if (!run.isCancelled()) {
+                            counts.get(replicateOne(config)).incrementAndGet();
+                        }
+                    })));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("复制到目标集群被中断: {}", name);
+            } catch (ExecutionException | RejectedExecutionException e) {
+                log.error("复制到目标集群异常: {}", name, e);
+            }
+
+            TargetSyncReport report = new TargetSyncReport();
+            report.setTarget(name);
+            report.setTotal(run.configs.size());
+            report.setSuccessCount(counts.get(ReplicaResult.SUCCESS).get());
+            report.setUnchangedCount(counts.get(ReplicaResult.UNCHANGED).get());
+            report.setSkippedCount(counts.get(ReplicaResult.SKIPPED).get());
+            report.setFailedCount(counts.get(ReplicaResult.FAILED).get());
+            report.setDuration(System.currentTimeMillis() - startTime);
+
+            log.info("复制目标同步完成 - 目标: {}, 变更发布: {}, 未变更: {}, 跳过: {}, 失败: {}, 耗时: {} ms",
+                name, report.getSuccessCount(), report.getUnchangedCount(), report.getSkippedCount(),
+                report.getFailedCount(), report.getDuration());
+            return report;
+        }
+
+        /**
+         * 复制单个配置: 读取目标集群当前内容, 有变更时先备份现有内容, 再按读取到的MD5发布(CAS);
+         * CAS返回失败时重新读取, 远程未变化视为发布被拒绝, 远程已变化时与主集群一样按冲突处理
+         */
+        ReplicaResult replicateOne(ConfigMetadata config) {
+            String dataId = config.getDataId();
+            String group = config.getGroup();
+
+            try {
+                ConfigContent local = configFileService.loadContent(config);
+                String content = local.getContent();
+                String localMd5 = local.getMd5();
+                ConfigService configService = pool.get(config.getNamespace());
+                String type = nacosConfigService.getConfigType(config.getType());
+
+                String remote = call("getConfig", () -> configService.getConfig(dataId, group, timeout));
+                for (int attempt = 0; ; attempt++) {
+                    if (!StringUtils.hasText(remote)) {
+                        return call("publishConfig", () -> configService.publishConfig(dataId, group, content, type)) ?
+                            ReplicaResult.SUCCESS : ReplicaResult.FAILED;
+                    }
+
+                    if (!configManagerProperties.isOverrideExisting()) {
+                        return ReplicaResult.SKIPPED;
+                    }
+
+                    String remoteMd5 = DigestUtil.md5Hex(remote);
+                    if (localMd5.equalsIgnoreCase(remoteMd5)) {
+                        return ReplicaResult.UNCHANGED;
+                    }
+                    if (configSemanticComparator.supports(config.getType())) {
+                        ConfigDiff diff = configSemanticComparator.diff(config.getType(), content, localMd5, remote, remoteMd5);
+                        if (diff != null && diff.isEquivalent()) {
+                            return ReplicaResult.UNCHANGED;
+                        }
+                    }
+
+                    // 备份持久化完成后才能覆盖
+                    if (backupEnabled && !backup(config, remote)) {
+                        return ReplicaResult.FAILED;
+                    }
+
+                    if (call("publishConfigCas", () -> configService.publishConfigCas(dataId, group, content, remoteMd5, type))) {
+                        log.debug("配置复制成功: 目标: {}, dataId={}, group={}", name, dataId, group);
+                        return ReplicaResult.SUCCESS;
+                    }
+
+                    String current = call("getConfig", () -> configService.getConfig(dataId, group, timeout));
+                    if (StringUtils.hasText(current) && remoteMd5.equalsIgnoreCase(DigestUtil.md5Hex(current))) {
+                        log.warn("配置复制被拒绝(远程配置未被修改)，下次同步重试: 目标: {}, dataId={}, group={}", name, dataId, group);
+                        return ReplicaResult.FAILED;
+                    }
+                    if (!configManagerProperties.isCasConflictOverwrite()) {
+                        log.warn("目标集群配置已被外部修改，跳过本次复制: 目标: {}, dataId={}, group={}", name, dataId, group);
+                        return ReplicaResult.SKIPPED;
+                    }
+                    if (attempt >= configManagerProperties.getCasMaxRetries()) {
+                        log.warn("配置复制持续冲突，放弃本次复制: 目标: {}, dataId={}, group={}", name, dataId, group);
+                        return ReplicaResult.FAILED;
+                    }
+
+                    log.info("配置复制冲突，按最新远程内容重新计划: 目标: {}, dataId={}, group={}, 第 {} 次",
+                        name, dataId, group, attempt + 1);
+                    remote = current;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("配置复制被中断: 目标: {}, dataId={}, group={}", name, dataId, group);
+                return ReplicaResult.FAILED;
+            } catch (Exception e) {
+                log.error("配置复制异常: 目标: {}, dataId={}, group={}", name, dataId, group, e);
+                return ReplicaResult.FAILED;
+            }
+        }
+
+        /**
+         * 备份目标集群上即将被覆盖的内容, 等待备份持久化完成
+         *
+         * @return 备份是否成功, 失败时取消本次覆盖
+         */
+        private boolean backup(ConfigMetadata config, String existingContent) throws InterruptedException {
+            try {
+                configBackupService.backupReplicaAsync(name, config, existingContent)
+                    .get(configManagerProperties.getBackupTimeout(), TimeUnit.MILLISECONDS);
+                return true;
+            } catch (ExecutionException e) {
+                log.error("目标集群配置备份失败，取消复制: 目标: {}, dataId={}, group={}",
+                    name, config.getDataId(), config.getGroup(), e.getCause());
+                return false;
+            } catch (TimeoutException e) {
+                log.error("等待目标集群配置备份超时，取消复制: 目标: {}, dataId={}, group={}",
+                    name, config.getDataId(), config.getGroup());
+                return false;
+            }
+        }
+
+        /**
+         * 经本目标的调用保护执行Nacos调用并记录调用统计
+         */
+        private <T> T call(String operation, NacosCallGuard.NacosCall<T> call) throws NacosException {
+            long startTime = System.nanoTime();
+            boolean success = false;
+            try {
+                T result = guard.execute(operation, call);
+                success = true;
+                return result;
+            } finally {
+                statistics.record(operation, System.nanoTime() - startTime, success);
+            }
+        }
+    }
+}
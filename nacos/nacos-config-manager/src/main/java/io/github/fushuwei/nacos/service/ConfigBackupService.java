@@ -1,18 +1,64 @@
 package io.github.fushuwei.nacos.service;
 
-import cn.hutool.core.date.DateUtil;
-import cn.hutool.core.io.FileUtil;
+import cn.hutool.crypto.digest.DigestUtil;
 import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.BackupCleanupProgress;
+import io.github.fushuwei.nacos.entity.BackupKind;
+import io.github.fushuwei.nacos.entity.BackupVersion;
 import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 配置备份服务类
+ * 备份内容按SHA-256哈希压缩存储(objects目录), 相同内容只存一份;
+ * 备份索引按天分段(index/yyyyMMdd.log), 每段按时间顺序追加记录配置版本, 内容与类型均未变化时不产生新版本;
+ * 除覆盖前的远程内容(BACKUP)外, 同时记录发布的内容(PUBLISH), 可据此查询任意时间点生效的配置版本;
+ * 复制目标集群覆盖前的远程内容按目标名称单独记录, 不与主集群的版本混在一起;
+ * 过期清理只读取整段过期的索引分段, 不需要遍历全部备份;
+ * 备份请求由独立的写入线程批量处理(组提交), 不阻塞同步线程的其他工作;
+ * 每批先将新的备份对象及其目录刷盘, 再追加索引并刷盘, 之后才通知备份请求方, 已确认的备份在断电后仍可恢复
  *
  * @author example
  * @version 1.0.0
@@ -21,112 +67,996 @@ import java.nio.charset.StandardCharsets;
 @Service
 public class ConfigBackupService {
 
+    private static final String OBJECTS_DIR = "objects";
+
+    private static final String INDEX_DIR = "index";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * 旧版单文件备份索引, 启动时迁移为分段索引
+     */
+    private static final String LEGACY_INDEX_FILE = "index.log";
+
+    /**
+     * 旧版备份文件后缀(按环境/应用目录存放的完整内容备份)
+     */
+    private static final String LEGACY_BACKUP_SUFFIX = ".bak";
+
+    /**
+     * 旧版备份文件清理完成标记, 存在时不再查找旧版备份目录
+     */
+    private static final String LEGACY_SWEPT_MARKER = ".legacy-backups-swept";
+
     @Autowired
     private ConfigManagerProperties configManagerProperties;
 
     /**
-     * 备份配置
+     * 配置唯一标识 -> 版本列表(按时间升序)
+     */
+    private final Map<String, List<BackupVersion>> versionIndex = new ConcurrentHashMap<>();
+
+    /**
+     * 备份对象哈希 -> 引用该对象的版本数
+     */
+    private final Map<String, Integer> objectRefs = new HashMap<>();
+
+    /**
+     * 最近一次分配的版本时间, 保证索引内时间单调递增
+     */
+    private long lastTimestamp;
+
+    /**
+     * 迁移时发现的旧版备份目录(备份目录下的 <环境>/<应用>), 清理时只处理这些目录
+     */
+    private final List<Path> legacyBackupDirs = new ArrayList<>();
+
+    /**
+     * 待写入的备份请求队列(有界, 队列满时备份请求方阻塞等待)
+     */
+    private BlockingQueue<BackupTask> backupQueue;
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    /**
+     * 启动时加载备份索引并启动备份写入线程
+     */
+    @PostConstruct
+    public void init() {
+        if (!configManagerProperties.isBackupEnabled()) {
+            return;
+        }
+
+        loadIndex();
+
+        backupQueue = new ArrayBlockingQueue<>(Math.max(1, configManagerProperties.getBackupQueueCapacity()));
+        running = true;
+        writerThread = new Thread(this::writeLoop, "config-backup-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * 停止备份写入线程, 已入队的备份写完后再退出; 超时仍未写入的请求直接失败
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failPending();
+    }
+
+    /**
+     * 加载备份索引
+     */
+    private synchronized void loadIndex() {
+        try {
+            migrateLegacyIndex();
+            findLegacyBackupDirs();
+
+            int count = 0;
+            int dropped = 0;
+            Map<String, Boolean> objectPresent = new HashMap<>();
+            for (Path segment : listSegments()) {
+                for (BackupVersion version : readSegment(segment)) {
+                    // 对象在索引之前刷盘, 对象缺失说明备份目录被外部修改, 记录无法恢复
+                    if (!objectPresent.computeIfAbsent(version.getHash(), this::isObjectPresent)) {
+                        dropped++;
+                        continue;
+                    }
+                    versionIndex.computeIfAbsent(buildConfigKey(version), key -> new ArrayList<>()).add(version);
+                    objectRefs.merge(version.getHash(), 1, Integer::sum);
+                    lastTimestamp = Math.max(lastTimestamp, version.getTimestamp());
+                    count++;
+                }
+            }
+
+            // 迁移的旧版记录追加在已有分段之后, 加载后按时间重新排序;
+            // 迁移后删除旧版索引前中断会留下重复记录, 一并去重
+            for (List<BackupVersion> versions : versionIndex.values()) {
+                versions.sort(Comparator.comparingLong(BackupVersion::getTimestamp));
+                for (int i = versions.size() - 1; i > 0; i--) {
+                    if (isSameVersion(versions.get(i), versions.get(i - 1))) {
+                        objectRefs.merge(versions.remove(i).getHash(), -1, Integer::sum);
+                        count--;
+                    }
+                }
+            }
+
+            if (dropped > 0) {
+                log.warn("备份索引中 {} 条记录的备份对象缺失，已忽略", dropped);
+            }
+            log.info("加载备份索引成功, 共 {} 个版本", count);
+        } catch (IOException e) {
+            log.error("加载备份索引失败", e);
+        }
+    }
+
+    /**
+     * 将旧版单文件索引迁移为按天分段的索引
+     */
+    private void migrateLegacyIndex() throws IOException {
+        Path legacyIndexFile = Paths.get(configManagerProperties.getBackupPath(), LEGACY_INDEX_FILE);
+        if (!Files.isRegularFile(legacyIndexFile)) {
+            return;
+        }
+
+        List<BackupVersion> versions = readSegment(legacyIndexFile);
+        appendIndex(versions);
+        Files.delete(legacyIndexFile);
+
+        log.info("旧版备份索引已迁移为分段索引, 共 {} 个版本", versions.size());
+    }
+
+    /**
+     * 备份配置, 等待备份持久化完成后返回
+     *
+     * @param config 配置元数据
+     * @param existingContent 现有配置内容
+     * @return 备份是否成功(未启用备份时返回true)
+     */
+    public boolean backupConfig(ConfigMetadata config, String existingContent) {
+        try {
+            backupConfigAsync(config, existingContent).get(configManagerProperties.getBackupTimeout(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("配置备份被中断: {}", config.getDataId());
+            return false;
+        } catch (ExecutionException e) {
+            log.error("配置备份失败: {}", config.getDataId(), e.getCause());
+            return false;
+        } catch (TimeoutException e) {
+            log.error("等待配置备份超时: {}", config.getDataId());
+            return false;
+        }
+    }
+
+    /**
+     * 异步备份配置
+     * 备份请求进入有界队列, 由备份写入线程批量写入, 每批索引只刷盘一次; 返回的Future在备份持久化后完成
      *
      * @param config 配置元数据
      * @param existingContent 现有配置内容
+     * @return 备份完成Future
+     */
+    public CompletableFuture<Void> backupConfigAsync(ConfigMetadata config, String existingContent) {
+        return enqueue(config, existingContent, BackupKind.BACKUP, null);
+    }
+
+    /**
+     * 异步备份复制目标集群上即将被覆盖的配置
+     * 版本按目标名称单独记录, 不参与主集群的时间点恢复与漂移判断
+     *
+     * @param cluster 复制目标名称
+     * @param config 配置元数据
+     * @param existingContent 目标集群上的现有配置内容
+     * @return 备份完成Future
+     */
+    public CompletableFuture<Void> backupReplicaAsync(String cluster, ConfigMetadata config, String existingContent) {
+        return enqueue(config, existingContent, BackupKind.BACKUP, cluster);
+    }
+
+    /**
+     * 异步记录已发布的配置内容, 用于按时间点恢复
+     *
+     * @param config 配置元数据
+     * @param publishedContent 已发布的配置内容
+     * @return 记录完成Future
      */
-    public void backupConfig(ConfigMetadata config, String existingContent) {
+    public CompletableFuture<Void> recordPublishAsync(ConfigMetadata config, String publishedContent) {
+        return enqueue(config, publishedContent, BackupKind.PUBLISH, null);
+    }
+
+    /**
+     * 异步记录远程配置已删除, 用于按时间点恢复时判断配置当时不存在
+     *
+     * @param config 配置元数据
+     * @param deletedContent 删除前的配置内容
+     * @return 记录完成Future
+     */
+    public CompletableFuture<Void> recordDeleteAsync(ConfigMetadata config, String deletedContent) {
+        return enqueue(config, deletedContent, BackupKind.DELETE, null);
+    }
+
+    /**
+     * 提交备份请求到写入队列
+     *
+     * @param config 配置元数据
+     * @param content 配置内容
+     * @param kind 记录类型
+     * @param cluster 复制目标名称, 主集群为空
+     * @return 备份完成Future
+     */
+    private CompletableFuture<Void> enqueue(ConfigMetadata config, String content, BackupKind kind, String cluster) {
         if (!configManagerProperties.isBackupEnabled()) {
-            return;
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("备份写入线程未运行"));
         }
 
+        BackupVersion version = BackupVersion.builder()
+            .timestamp(System.currentTimeMillis())
+            .hash(DigestUtil.sha256Hex(content))
+            .environment(config.getEnvironment())
+            .appName(config.getAppName())
+            .namespace(config.getNamespace())
+            .group(config.getGroup())
+            .dataId(config.getDataId())
+            .kind(kind)
+            .cluster(cluster)
+            .build();
+
+        BackupTask task = new BackupTask(version, content);
         try {
-            String backupDir = configManagerProperties.getBackupPath();
-            String timestamp = DateUtil.format(DateUtil.date(), "yyyyMMdd_HHmmss");
+            // 队列满时等待, 写入线程停止后不再等待
+            while (!backupQueue.offer(task, 500, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    task.future.completeExceptionally(new IllegalStateException("备份写入线程已停止"));
+                    return task.future;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.future.completeExceptionally(e);
+            return task.future;
+        }
+
+        // 入队时写入线程可能已退出: 仍能从队列移除说明没有被写入线程取走, 直接失败
+        if (!running && backupQueue.remove(task)) {
+            task.future.completeExceptionally(new IllegalStateException("备份写入线程已停止"));
+        }
+        return task.future;
+    }
+
+    /**
+     * 备份写入循环: 取出一批备份请求统一写入
+     */
+    private void writeLoop() {
+        int batchSize = Math.max(1, configManagerProperties.getBackupBatchSize());
+        List<BackupTask> batch = new ArrayList<>(batchSize);
+
+        while (running || !backupQueue.isEmpty()) {
+            try {
+                BackupTask first = backupQueue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                backupQueue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // 线程退出时仍未处理的请求直接失败, 避免调用方无限等待
+        failPending();
+    }
+
+    /**
+     * 队列中未处理的备份请求直接失败
+     */
+    private void failPending() {
+        if (backupQueue == null) {
+            return;
+        }
+        BackupTask task;
+        while ((task = backupQueue.poll()) != null) {
+            task.future.completeExceptionally(new IllegalStateException("备份写入线程已停止"));
+        }
+    }
+
+    /**
+     * 写入一批备份
+     * 先写入新的备份对象并将对象及其所在目录刷盘, 再一次性追加全部索引记录并刷盘, 刷盘完成后才通知备份请求方;
+     * 索引记录只会指向已落盘的对象
+     *
+     * @param batch 备份请求
+     */
+    private void writeBatch(List<BackupTask> batch) {
+        List<BackupTask> written = new ArrayList<>(batch.size());
+        List<BackupTask> skipped = new ArrayList<>();
+        List<Path> objectFiles = new ArrayList<>();
+
+        synchronized (this) {
+            try {
+                // 同一批内按入队顺序去重: 内容与类型均与最近一条记录相同时无需备份
+                Map<String, BackupVersion> latestVersions = new HashMap<>();
+                for (BackupTask task : batch) {
+                    String configKey = buildConfigKey(task.version);
+                    BackupVersion latest = latestVersions.computeIfAbsent(configKey, this::getLatestVersion);
+
+                    if (latest != null && task.version.getHash().equals(latest.getHash())
+                        && task.version.getKind() == latest.getKind()) {
+                        skipped.add(task);
+                        continue;
+                    }
 
-            // 构建备份文件路径
-            String backupFileName = String.format("%s_%s_%s_%s.bak",
-                config.getEnvironment(),
-                config.getAppName(),
-                config.getDataId(),
-                timestamp);
+                    objectFiles.add(writeObject(task.version.getHash(), task.content));
+                    latestVersions.put(configKey, task.version);
+                    written.add(task);
+                }
+
+                // 按写入时间分配版本时间, 保证索引分段内时间有序
+                lastTimestamp = Math.max(lastTimestamp, System.currentTimeMillis());
+                written.forEach(task -> task.version.setTimestamp(lastTimestamp));
+
+                forceObjects(objectFiles);
+                appendIndex(written.stream().map(task -> task.version).collect(Collectors.toList()));
+
+                for (BackupTask task : written) {
+                    versionIndex.computeIfAbsent(buildConfigKey(task.version), key -> new ArrayList<>()).add(task.version);
+                    objectRefs.merge(task.version.getHash(), 1, Integer::sum);
+                }
+            } catch (Exception e) {
+                log.error("写入备份失败, 批次大小: {}", batch.size(), e);
+                batch.forEach(task -> task.future.completeExceptionally(e));
+                return;
+            }
+        }
+
+        written.forEach(task -> log.info("配置备份成功: {} -> {}", task.version.getDataId(), task.version.getHash()));
+        skipped.forEach(task -> log.debug("配置内容与最近备份一致，无需备份: {}", task.version.getDataId()));
+        batch.forEach(task -> task.future.complete(null));
+    }
+
+    /**
+     * 读取备份内容
+     *
+     * @param hash 内容哈希
+     * @return 备份内容
+     * @throws IOException 读取异常
+     */
+    public String readObject(String hash) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(getObjectFile(hash)))) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 获取配置的全部备份版本
+     *
+     * @param namespace 命名空间
+     * @param group 分组
+     * @param dataId 数据ID
+     * @return 版本列表(按时间升序)
+     */
+    public List<BackupVersion> getVersions(String namespace, String group, String dataId) {
+        return getVersions(null, namespace, group, dataId);
+    }
+
+    /**
+     * 获取配置在指定集群上的全部备份版本
+     *
+     * @param cluster 复制目标名称, 为空时查询主集群
+     * @param namespace 命名空间
+     * @param group 分组
+     * @param dataId 数据ID
+     * @return 版本列表(按时间升序)
+     */
+    public List<BackupVersion> getVersions(String cluster, String namespace, String group, String dataId) {
+        List<BackupVersion> versions = versionIndex.get(buildConfigKey(cluster, namespace, group, dataId));
+        if (versions == null) {
+            return Collections.emptyList();
+        }
+        synchronized (this) {
+            return new ArrayList<>(versions);
+        }
+    }
 
-            String backupFilePath = backupDir + File.separator +
-                config.getEnvironment() + File.separator +
-                config.getAppName() + File.separator +
-                backupFileName;
+    /**
+     * 查询配置在指定时间点生效的版本
+     *
+     * @param namespace 命名空间
+     * @param group 分组
+     * @param dataId 数据ID
+     * @param time 时间点(毫秒)
+     * @return 生效版本, 当时不存在或无法确定时返回null
+     */
+    public BackupVersion findVersionAt(String namespace, String group, String dataId, long time) {
+        return resolveVersionAt(getVersions(namespace, group, dataId), time);
+    }
 
-            // 创建备份目录
-            File backupFile = new File(backupFilePath);
-            FileUtil.mkParentDirs(backupFile);
+    /**
+     * 查询环境(可选应用)下全部配置在指定时间点生效的版本
+     *
+     * @param environment 环境
+     * @param appName 应用名称, 为空时不限应用
+     * @param time 时间点(毫秒)
+     * @return 配置唯一标识 -> 生效版本(当时不存在或无法确定时为null)
+     */
+    public Map<String, BackupVersion> findVersionsAt(String environment, String appName, long time) {
+        Map<String, BackupVersion> result = new LinkedHashMap<>();
 
-            // 写入备份内容
-            FileUtil.writeString(existingContent, backupFile, StandardCharsets.UTF_8);
+        List<String> configKeys = versionIndex.keySet().stream().sorted().collect(Collectors.toList());
+        for (String configKey : configKeys) {
+            List<BackupVersion> versions;
+            synchronized (this) {
+                List<BackupVersion> indexed = versionIndex.get(configKey);
+                if (indexed == null || indexed.isEmpty()) {
+                    continue;
+                }
+                versions = new ArrayList<>(indexed);
+            }
 
-            log.info("配置备份成功: {} -> {}", config.getDataId(), backupFilePath);
+            // 复制目标集群的备份不参与主集群的时间点恢复
+            BackupVersion latest = versions.get(versions.size() - 1);
+            if (latest.getCluster() != null || !environment.equals(latest.getEnvironment())
+                || (appName != null && !appName.equals(latest.getAppName()))) {
+                continue;
+            }
 
-        } catch (Exception e) {
-            log.error("配置备份失败: {}", config.getDataId(), e);
+            result.put(configKey, resolveVersionAt(versions, time));
         }
+
+        return result;
     }
 
     /**
-     * 清理过期备份文件
+     * 在按时间升序的版本列表中确定指定时间点生效的版本
+     * 时间点之后的第一条记录是BACKUP时, 该内容在时间点仍生效;
+     * 否则取时间点之前的最后一条记录: PUBLISH从记录时起生效, BACKUP在之后的发布或删除前一直生效
+     * (发布失败、冲突或备份超时都会留下末尾的BACKUP, 此时远程仍是该内容), DELETE说明配置已被删除
+     *
+     * @param versions 版本列表
+     * @param time 时间点(毫秒)
+     * @return 生效版本
+     */
+    private BackupVersion resolveVersionAt(List<BackupVersion> versions, long time) {
+        int next = 0;
+        while (next < versions.size() && versions.get(next).getTimestamp() <= time) {
+            next++;
+        }
+
+        if (next < versions.size() && versions.get(next).getKind() == BackupKind.BACKUP) {
+            return versions.get(next);
+        }
+        if (next == 0) {
+            return null;
+        }
+
+        BackupVersion previous = versions.get(next - 1);
+        return previous.getKind() == BackupKind.DELETE ? null : previous;
+    }
+
+    /**
+     * 清理过期备份
+     * 只处理整段过期的索引分段: 分段内仍是配置最新版本的记录保留在原分段(按原时间),
+     * 其余版本删除, 引用数归零的备份对象一并删除, 没有保留记录的分段文件直接删除;
+     * 同时清理迁移时记录的旧版备份目录中过期的备份文件(*.bak)
      *
      * @param retentionDays 保留天数
+     * @param progress 清理进度
      */
-    public void cleanupExpiredBackups(int retentionDays) {
+    public void cleanupExpiredBackups(int retentionDays, BackupCleanupProgress progress) {
         if (!configManagerProperties.isBackupEnabled()) {
             return;
         }
 
+        long cutoffTime = System.currentTimeMillis() - (retentionDays * 24L * 60 * 60 * 1000);
+        LocalDate cutoffDate = Instant.ofEpochMilli(cutoffTime).atZone(ZoneId.systemDefault()).toLocalDate();
+
         try {
-            String backupDir = configManagerProperties.getBackupPath();
-            File backupDirFile = new File(backupDir);
+            // 分段按日期命名, 早于截止日期的分段整段过期
+            List<Path> expiredSegments = new ArrayList<>();
+            for (Path segment : listSegments()) {
+                if (getSegmentDate(segment).isBefore(cutoffDate)) {
+                    expiredSegments.add(segment);
+                }
+            }
+            progress.setTotalSegments(expiredSegments.size());
 
-            if (!backupDirFile.exists() || !backupDirFile.isDirectory()) {
-                return;
+            for (Path segment : expiredSegments) {
+                cleanupSegment(segment, progress);
+                progress.setProcessedSegments(progress.getProcessedSegments() + 1);
+            }
+
+            cleanupLegacyBackups(cutoffTime, progress);
+
+            log.info("过期备份清理完成，处理分段 {} 个, 删除版本 {} 个, 保留最新版本 {} 个, 删除备份对象 {} 个, 删除旧版备份文件 {} 个",
+                expiredSegments.size(), progress.getExpiredVersions(), progress.getRetainedVersions(),
+                progress.getDeletedObjects(), progress.getDeletedLegacyFiles());
+
+        } catch (IOException e) {
+            log.error("清理过期备份失败", e);
+            progress.setMessage("清理失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 清理单个过期分段
+     *
+     * @param segment 分段文件
+     * @param progress 清理进度
+     */
+    private synchronized void cleanupSegment(Path segment, BackupCleanupProgress progress) throws IOException {
+        List<BackupVersion> records = readSegment(segment);
+        List<BackupVersion> retained = new ArrayList<>();
+
+        for (BackupVersion version : records) {
+            List<BackupVersion> versions = versionIndex.get(buildConfigKey(version));
+            if (versions == null) {
+                continue;
+            }
+
+            // 配置的最新版本始终保留
+            BackupVersion latest = versions.get(versions.size() - 1);
+            if (isSameVersion(latest, version)) {
+                retained.add(version);
+                continue;
+            }
+
+            Iterator<BackupVersion> iterator = versions.iterator();
+            while (iterator.hasNext()) {
+                if (isSameVersion(iterator.next(), version)) {
+                    iterator.remove();
+                    progress.setExpiredVersions(progress.getExpiredVersions() + 1);
+                    releaseObject(version.getHash(), progress);
+                    break;
+                }
             }
+        }
+
+        progress.setRetainedVersions(progress.getRetainedVersions() + retained.size());
+        if (retained.isEmpty()) {
+            Files.delete(segment);
+        } else if (retained.size() < records.size()) {
+            rewriteSegment(segment, retained);
+        }
 
-            long cutoffTime = System.currentTimeMillis() - (retentionDays * 24L * 60 * 60 * 1000);
-            int deletedCount = 0;
+        log.debug("过期备份分段已清理: {}, 保留 {} 个最新版本", segment.getFileName(), retained.size());
+    }
+
+    /**
+     * 以保留的记录重写分段(先写临时文件并刷盘, 再原子替换)
+     *
+     * @param segment 分段文件
+     * @param versions 保留的备份版本
+     */
+    private void rewriteSegment(Path segment, List<BackupVersion> versions) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        versions.forEach(version -> lines.append(formatIndexLine(version)).append(System.lineSeparator()));
 
-            deletedCount += cleanupDirectory(backupDirFile, cutoffTime);
+        Path tempFile = segment.resolveSibling(segment.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(tempFile, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
 
-            log.info("过期备份文件清理完成，共删除 {} 个文件", deletedCount);
+    /**
+     * 查找旧版备份目录, 只在旧版备份清理完成前执行一次
+     * 旧版备份按 <环境>/<应用>/<环境>_<应用>_<文件名>_<时间>.bak 存放, 只记录目录内全部是此类文件的应用目录
+     */
+    private void findLegacyBackupDirs() throws IOException {
+        Path backupDir = Paths.get(configManagerProperties.getBackupPath());
+        if (!Files.isDirectory(backupDir) || Files.exists(backupDir.resolve(LEGACY_SWEPT_MARKER))) {
+            return;
+        }
+
+        List<Path> envDirs;
+        try (Stream<Path> files = Files.list(backupDir)) {
+            envDirs = files
+                .filter(Files::isDirectory)
+                .filter(dir -> !dir.getFileName().toString().equals(OBJECTS_DIR)
+                    && !dir.getFileName().toString().equals(INDEX_DIR))
+                .collect(Collectors.toList());
+        }
+
+        for (Path envDir : envDirs) {
+            try (Stream<Path> files = Files.list(envDir)) {
+                files.filter(Files::isDirectory).filter(this::isLegacyBackupDir).forEach(legacyBackupDirs::add);
+            }
+        }
+
+        if (legacyBackupDirs.isEmpty()) {
+            markLegacyBackupsSwept();
+        } else {
+            log.info("发现 {} 个旧版备份目录, 其中的备份文件过期后清理", legacyBackupDirs.size());
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("清理过期备份文件失败", e);
+    /**
+     * 判断是否为旧版备份的应用目录: 目录非空, 且只包含以 <环境>_<应用>_ 开头的 *.bak 文件
+     *
+     * @param appDir 应用目录
+     * @return 是否为旧版备份目录
+     */
+    private boolean isLegacyBackupDir(Path appDir) {
+        String prefix = appDir.getParent().getFileName() + "_" + appDir.getFileName() + "_";
+        try (Stream<Path> files = Files.list(appDir)) {
+            List<Path> children = files.collect(Collectors.toList());
+            return !children.isEmpty() && children.stream().allMatch(path -> isLegacyBackupFile(path, prefix));
+        } catch (IOException e) {
+            log.warn("读取旧版备份目录失败: {}", appDir, e);
+            return false;
         }
     }
 
+    private boolean isLegacyBackupFile(Path path, String prefix) {
+        String fileName = path.getFileName().toString();
+        return Files.isRegularFile(path) && fileName.startsWith(prefix) && fileName.endsWith(LEGACY_BACKUP_SUFFIX);
+    }
+
     /**
-     * 递归清理目录中的过期文件
+     * 清理旧版本遗留的过期备份文件
+     * 只处理迁移时记录的旧版备份目录及其中的旧版备份文件, 目录清空后删除该目录及随之变空的环境目录;
+     * 全部旧版备份清理完成后写入完成标记, 之后不再查找旧版备份目录
      *
-     * @param directory 目录
      * @param cutoffTime 截止时间
-     * @return 删除的文件数量
+     * @param progress 清理进度
+     */
+    private synchronized void cleanupLegacyBackups(long cutoffTime, BackupCleanupProgress progress) throws IOException {
+        if (legacyBackupDirs.isEmpty()) {
+            return;
+        }
+
+        Iterator<Path> iterator = legacyBackupDirs.iterator();
+        while (iterator.hasNext()) {
+            Path appDir = iterator.next();
+            if (!Files.isDirectory(appDir)) {
+                iterator.remove();
+                continue;
+            }
+
+            String prefix = appDir.getParent().getFileName() + "_" + appDir.getFileName() + "_";
+            List<Path> backupFiles;
+            try (Stream<Path> files = Files.list(appDir)) {
+                backupFiles = files.filter(path -> isLegacyBackupFile(path, prefix)).collect(Collectors.toList());
+            }
+
+            for (Path backupFile : backupFiles) {
+                if (Files.getLastModifiedTime(backupFile).toMillis() < cutoffTime) {
+                    Files.delete(backupFile);
+                    progress.setDeletedLegacyFiles(progress.getDeletedLegacyFiles() + 1);
+                    log.debug("删除过期的旧版备份文件: {}", backupFile);
+                }
+            }
+
+            if (deleteIfEmpty(appDir)) {
+                deleteIfEmpty(appDir.getParent());
+                iterator.remove();
+            }
+        }
+
+        if (legacyBackupDirs.isEmpty()) {
+            markLegacyBackupsSwept();
+            log.info("旧版备份文件已全部清理");
+        }
+    }
+
+    /**
+     * 目录为空时删除
+     *
+     * @param dir 目录
+     * @return 是否已删除
      */
-    private int cleanupDirectory(File directory, long cutoffTime) {
-        int deletedCount = 0;
+    private boolean deleteIfEmpty(Path dir) throws IOException {
+        try (Stream<Path> children = Files.list(dir)) {
+            if (children.findAny().isPresent()) {
+                return false;
+            }
+        }
+        return Files.deleteIfExists(dir);
+    }
+
+    private void markLegacyBackupsSwept() throws IOException {
+        Path marker = Paths.get(configManagerProperties.getBackupPath(), LEGACY_SWEPT_MARKER);
+        if (!Files.exists(marker)) {
+            Files.createFile(marker);
+        }
+    }
 
-        File[] files = directory.listFiles();
-        if (files == null) {
-            return 0;
+    /**
+     * 释放备份对象引用, 引用数归零时删除对象文件
+     *
+     * @param hash 内容哈希
+     * @param progress 清理进度
+     */
+    private void releaseObject(String hash, BackupCleanupProgress progress) throws IOException {
+        Integer refs = objectRefs.computeIfPresent(hash, (key, count) -> count > 1 ? count - 1 : null);
+        if (refs == null && Files.deleteIfExists(getObjectFile(hash))) {
+            progress.setDeletedObjects(progress.getDeletedObjects() + 1);
         }
+    }
 
-        for (File file : files) {
-            if (file.isDirectory()) {
-                deletedCount += cleanupDirectory(file, cutoffTime);
-                // 如果目录为空，删除目录
-                if (file.list() != null && file.list().length == 0) {
-                    file.delete();
+    /**
+     * 判断两条记录是否为同一版本
+     */
+    private boolean isSameVersion(BackupVersion a, BackupVersion b) {
+        return a.getTimestamp() == b.getTimestamp() && a.getHash().equals(b.getHash()) && a.getKind() == b.getKind();
+    }
+
+    /**
+     * 写入备份对象(已存在时跳过): 先写临时文件并刷盘, 再原子替换; 所在目录由调用方统一刷盘
+     *
+     * @param hash 内容哈希
+     * @param content 内容
+     * @return 对象文件
+     */
+    private Path writeObject(String hash, String content) throws IOException {
+        Path objectFile = getObjectFile(hash);
+        if (isObjectPresent(hash)) {
+            return objectFile;
+        }
+
+        Files.createDirectories(objectFile.getParent());
+        Path tempFile = objectFile.resolveSibling(objectFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            try (GZIPOutputStream outputStream = new GZIPOutputStream(Channels.newOutputStream(channel))) {
+                outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+                outputStream.finish();
+                channel.force(false);
+            }
+        }
+        Files.move(tempFile, objectFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return objectFile;
+    }
+
+    /**
+     * 将一批备份引用的对象所在目录刷盘(对象内容已在写入时刷盘), 使对象文件名在断电后仍然存在;
+     * 复用的已有对象可能来自刷盘失败的批次, 同样刷盘其目录; 新建的哈希前缀目录需要其父目录(objects)一并刷盘
+     *
+     * @param objectFiles 对象文件
+     */
+    private void forceObjects(List<Path> objectFiles) throws IOException {
+        if (objectFiles.isEmpty()) {
+            return;
+        }
+
+        Set<Path> dirs = new LinkedHashSet<>();
+        objectFiles.forEach(objectFile -> dirs.add(objectFile.getParent()));
+        for (Path dir : dirs) {
+            forceDirectory(dir);
+        }
+        forceDirectory(Paths.get(configManagerProperties.getBackupPath(), OBJECTS_DIR));
+    }
+
+    /**
+     * 目录刷盘, 使其中新建或改名的文件在断电后仍然存在; 不支持打开目录的平台(如Windows)跳过
+     *
+     * @param dir 目录
+     */
+    private void forceDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("当前平台不支持目录刷盘: {}", dir);
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * 备份对象是否存在且非空(异常断电后未落盘的对象可能为空文件)
+     *
+     * @param hash 内容哈希
+     * @return 是否存在
+     */
+    private boolean isObjectPresent(String hash) {
+        try {
+            return Files.size(getObjectFile(hash)) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 追加一批备份索引记录到对应日期的分段, 每个分段只刷盘一次(通常一批只涉及当天分段)
+     *
+     * @param versions 备份版本
+     */
+    private void appendIndex(List<BackupVersion> versions) throws IOException {
+        if (versions.isEmpty()) {
+            return;
+        }
+
+        // 每条记录写入版本时间对应日期的分段, 分段日期与其中记录的时间一致, 过期判断才准确
+        Map<LocalDate, StringBuilder> linesBySegment = new LinkedHashMap<>();
+        for (BackupVersion version : versions) {
+            LocalDate date = Instant.ofEpochMilli(version.getTimestamp()).atZone(ZoneId.systemDefault()).toLocalDate();
+            linesBySegment.computeIfAbsent(date, key -> new StringBuilder())
+                .append(formatIndexLine(version)).append(System.lineSeparator());
+        }
+
+        Path indexDir = getIndexDir();
+        Files.createDirectories(indexDir);
+        boolean segmentCreated = false;
+        for (Map.Entry<LocalDate, StringBuilder> entry : linesBySegment.entrySet()) {
+            Path segment = indexDir.resolve(entry.getKey().format(DateTimeFormatter.BASIC_ISO_DATE) + SEGMENT_SUFFIX);
+            segmentCreated |= !Files.exists(segment);
+            try (FileChannel channel = FileChannel.open(segment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(entry.getValue().toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
                 }
-            } else if (file.isFile() && file.getName().endsWith(".bak")) {
-                if (file.lastModified() < cutoffTime) {
-                    if (file.delete()) {
-                        deletedCount++;
-                        log.debug("删除过期备份文件: {}", file.getAbsolutePath());
-                    }
+                channel.force(false);
+            }
+        }
+
+        // 新建的分段文件需要目录刷盘, 否则断电后分段可能整个丢失
+        if (segmentCreated) {
+            forceDirectory(indexDir);
+        }
+    }
+
+    /**
+     * 读取索引分段
+     *
+     * @param segment 分段文件
+     * @return 备份版本列表
+     */
+    private List<BackupVersion> readSegment(Path segment) throws IOException {
+        List<BackupVersion> versions = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                BackupVersion version = parseIndexLine(line);
+                if (version != null) {
+                    versions.add(version);
                 }
             }
         }
+        return versions;
+    }
 
-        return deletedCount;
+    /**
+     * 列出全部索引分段(按日期升序)
+     *
+     * @return 分段文件列表
+     */
+    private List<Path> listSegments() throws IOException {
+        Path indexDir = getIndexDir();
+        if (!Files.isDirectory(indexDir)) {
+            return Collections.emptyList();
+        }
+
+        try (Stream<Path> files = Files.list(indexDir)) {
+            return files
+                .filter(file -> file.getFileName().toString().matches("\\d{8}\\" + SEGMENT_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 获取分段日期
+     */
+    private LocalDate getSegmentDate(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return LocalDate.parse(fileName.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    /**
+     * 获取配置最近一次备份版本
+     *
+     * @param configKey 配置唯一标识
+     * @return 备份版本, 不存在时返回null
+     */
+    private BackupVersion getLatestVersion(String configKey) {
+        List<BackupVersion> versions = versionIndex.get(configKey);
+        return versions == null || versions.isEmpty() ? null : versions.get(versions.size() - 1);
+    }
+
+    /**
+     * 格式化索引记录: 时间\t哈希\t环境\t应用\t命名空间\t分组\t数据ID\t类型[\t复制目标]
+     */
+    private String formatIndexLine(BackupVersion version) {
+        String line = String.join("\t", String.valueOf(version.getTimestamp()), version.getHash(),
+            String.valueOf(version.getEnvironment()), String.valueOf(version.getAppName()),
+            String.valueOf(version.getNamespace()), String.valueOf(version.getGroup()), version.getDataId(),
+            version.getKind().name());
+        return version.getCluster() != null ? line + "\t" + version.getCluster() : line;
+    }
+
+    /**
+     * 解析索引记录(旧版记录没有类型列, 视为BACKUP; 主集群记录没有复制目标列)
+     */
+    private BackupVersion parseIndexLine(String line) {
+        String[] parts = line.split("\t", 9);
+        if (parts.length < 7) {
+            return null;
+        }
+        return BackupVersion.builder()
+            .timestamp(Long.parseLong(parts[0]))
+            .hash(parts[1])
+            .environment(parts[2])
+            .appName(parts[3])
+            .namespace(parts[4])
+            .group(parts[5])
+            .dataId(parts[6])
+            .kind(parts.length >= 8 ? BackupKind.valueOf(parts[7]) : BackupKind.BACKUP)
+            .cluster(parts.length == 9 ? parts[8] : null)
+            .build();
+    }
+
+    /**
+     * 构建配置唯一标识
+     */
+    private String buildConfigKey(BackupVersion version) {
+        return buildConfigKey(version.getCluster(), version.getNamespace(), version.getGroup(), version.getDataId());
+    }
+
+    /**
+     * 构建配置唯一标识, 复制目标集群的版本以目标名称为前缀
+     */
+    private String buildConfigKey(String cluster, String namespace, String group, String dataId) {
+        String configKey = namespace + "/" + group + "/" + dataId;
+        return cluster != null ? cluster + "@" + configKey : configKey;
+    }
+
+    /**
+     * 获取备份对象文件路径: objects/哈希前2位/哈希剩余部分.gz
+     */
+    private Path getObjectFile(String hash) {
+        return Paths.get(configManagerProperties.getBackupPath(), OBJECTS_DIR, hash.substring(0, 2), hash.substring(2) + ".gz");
+    }
+
+    /**
+     * 获取索引分段目录
+     */
+    private Path getIndexDir() {
+        return Paths.get(configManagerProperties.getBackupPath(), INDEX_DIR);
+    }
+
+    /**
+     * 备份请求
+     */
+    private static class BackupTask {
+        final BackupVersion version;
+        final String content;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        BackupTask(BackupVersion version, String content) {
+            this.version = version;
+            this.content = content;
+        }
     }
 }
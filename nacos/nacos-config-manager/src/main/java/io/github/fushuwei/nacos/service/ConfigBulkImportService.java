@@ -0,0 +1,165 @@
+package io.github.fushuwei.nacos.service;
+
+import io.github.fushuwei.nacos.config.NacosConfigServicePool;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.ImportResult;
+import io.github.fushuwei.nacos.entity.SyncPlanItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 配置批量导入服务类
+ * 将同一命名空间内待新建的配置打包为Nacos导入ZIP, 一次请求完成导入, 用于首次初始化环境;
+ * 导入失败、被跳过或无法识别的配置由调用方回退为逐个发布
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ConfigBulkImportService {
+
+    /**
+     * Nacos导入格式的元数据文件名
+     */
+    private static final String METADATA_FILE = ".metadata.yml";
+
+    @Autowired
+    private ConfigFileService configFileService;
+
+    @Autowired
+    private ConfigBackupService configBackupService;
+
+    @Autowired
+    private NacosConfigService nacosConfigService;
+
+    @Autowired
+    private NacosOpenApiClient nacosOpenApiClient;
+
+    @Autowired
+    private NacosConfigServicePool nacosConfigServicePool;
+
+    @Autowired
+    private RemoteConfigMirror remoteConfigMirror;
+
+    /**
+     * 批量导入同一命名空间内的新建配置
+     *
+     * @param namespace 命名空间
+     * @param items 同步计划项(动作为新建, 每个dataId只有一项)
+     * @return 导入成功的计划项, 其余计划项需回退为逐个发布
+     */
+    public List<SyncPlanItem> importConfigs(String namespace, List<SyncPlanItem> items) {
+        String tenant = nacosConfigServicePool.resolveNamespaceId(namespace);
+
+        // 读取配置内容, 读取失败的配置不参与导入
+        Map<SyncPlanItem, String> contents = new LinkedHashMap<>();
+        for (SyncPlanItem item : items) {
+            try {
+                contents.put(item, configFileService.loadContent(item.getConfig()).getContent());
+            } catch (IOException e) {
+                log.warn("读取配置内容失败，不参与批量导入: {}, 错误: {}", item.getConfig().getFilePath(), e.getMessage());
+            }
+        }
+        if (contents.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        ImportResult result;
+        try {
+            byte[] zipBytes = buildImportZip(contents);
+            log.info("开始批量导入配置: namespace={}, 数量={}, ZIP大小={} 字节",
+                StringUtils.hasText(tenant) ? tenant : "public", contents.size(), zipBytes.length);
+            result = nacosOpenApiClient.importConfigs(tenant, zipBytes, "config-import-" + System.currentTimeMillis() + ".zip");
+        } catch (Exception e) {
+            log.warn("批量导入配置失败，全部回退为逐个发布: namespace={}, 错误: {}", namespace, e.getMessage());
+            return Collections.emptyList();
+        }
+
+        // 未出现在失败、跳过与无法识别列表中的配置视为已导入
+        Map<SyncPlanItem, String> importedContents = new LinkedHashMap<>();
+        contents.forEach((item, content) -> {
+            ConfigMetadata config = item.getConfig();
+            String key = config.getGroup() + "/" + config.getDataId();
+            if (!result.getFailedKeys().contains(key) && !result.getSkippedKeys().contains(key)
+                && !result.getUnrecognizedKeys().contains(key)) {
+                importedContents.put(item, content);
+            }
+        });
+
+        // 成功数与推断的导入数不一致时无法确定哪些配置已创建, 全部回退为逐个发布(逐个发布前重新读取远程状态)
+        if (result.getSuccessCount() != importedContents.size()) {
+            log.warn("批量导入成功数与导入结果不一致，全部回退为逐个发布: namespace={}, 成功数={}, 推断导入数={}, 无法识别={}",
+                StringUtils.hasText(tenant) ? tenant : "public", result.getSuccessCount(), importedContents.size(),
+                result.getUnrecognizedCount());
+            return Collections.emptyList();
+        }
+
+        List<SyncPlanItem> imported = new ArrayList<>(importedContents.size());
+        importedContents.forEach((item, content) -> {
+            ConfigMetadata config = item.getConfig();
+            // 记录发布内容(不等待落盘), 用于按时间点恢复
+            configBackupService.recordPublishAsync(config, content);
+            remoteConfigMirror.update(namespace, config.getDataId(), config.getGroup(), content);
+            imported.add(item);
+        });
+
+        log.info("批量导入配置完成: namespace={}, 成功={}, 跳过={}, 失败={}, 无法识别={}",
+            StringUtils.hasText(tenant) ? tenant : "public", imported.size(),
+            result.getSkippedKeys().size(), result.getFailedKeys().size(), result.getUnrecognizedKeys().size());
+        return imported;
+    }
+
+    /**
+     * 构建Nacos导入ZIP: 根目录 .metadata.yml 描述 dataId/group/type, 配置内容位于 group/dataId
+     *
+     * @param contents 计划项 -> 配置内容
+     * @return ZIP包内容
+     * @throws IOException 写入异常
+     */
+    private byte[] buildImportZip(Map<SyncPlanItem, String> contents) throws IOException {
+        List<Map<String, Object>> metadata = new ArrayList<>(contents.size());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8)) {
+            for (Map.Entry<SyncPlanItem, String> entry : contents.entrySet()) {
+                ConfigMetadata config = entry.getKey().getConfig();
+
+                zip.putNextEntry(new ZipEntry(config.getGroup() + "/" + config.getDataId()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+
+                Map<String, Object> meta = new LinkedHashMap<>();
+                meta.put("dataId", config.getDataId());
+                meta.put("group", config.getGroup());
+                meta.put("type", nacosConfigService.getConfigType(config.getType()));
+                metadata.add(meta);
+            }
+
+            DumperOptions options = new DumperOptions();
+            options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+            String metadataYaml = new Yaml(options).dump(Collections.singletonMap("metadata", metadata));
+
+            zip.putNextEntry(new ZipEntry(METADATA_FILE));
+            zip.write(metadataYaml.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        return outputStream.toByteArray();
+    }
+}
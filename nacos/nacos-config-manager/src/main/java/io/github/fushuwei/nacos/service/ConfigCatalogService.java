@@ -0,0 +1,243 @@
+package io.github.fushuwei.nacos.service;
+
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 配置目录服务类
+ * 在内存中按 环境/应用/配置名 索引扫描结果, 首次使用时加载一次, 之后按文件增量更新
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ConfigCatalogService {
+
+    @Autowired
+    private ConfigFileService configFileService;
+
+    /**
+     * 文件路径 -> 配置元数据
+     */
+    private volatile Map<String, ConfigMetadata> configsByPath = new ConcurrentHashMap<>();
+
+    /**
+     * 环境/应用/配置名(或带扩展名的文件名) -> 文件路径
+     */
+    private volatile Map<String, String> pathsByName = new ConcurrentHashMap<>();
+
+    /**
+     * 命名空间/分组/dataId -> 生效配置(同一dataId对应多个文件时文件路径最大者)的文件路径
+     */
+    private volatile Map<String, String> pathsByDataId = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    /**
+     * 重新扫描配置文件并重建目录
+     *
+     * @return 扫描到的配置列表
+     */
+    public synchronized List<ConfigMetadata> refresh() {
+        List<ConfigMetadata> configList = configFileService.scanConfigFiles();
+
+        Map<String, ConfigMetadata> newConfigsByPath = new ConcurrentHashMap<>();
+        Map<String, String> newPathsByName = new ConcurrentHashMap<>();
+        Map<String, String> newPathsByDataId = new ConcurrentHashMap<>();
+        for (ConfigMetadata config : configList) {
+            index(config, newConfigsByPath, newPathsByName, newPathsByDataId);
+        }
+
+        configsByPath = newConfigsByPath;
+        pathsByName = newPathsByName;
+        pathsByDataId = newPathsByDataId;
+        loaded = true;
+
+        log.debug("配置目录已重建, 共 {} 个配置", newConfigsByPath.size());
+        return configList;
+    }
+
+    /**
+     * 查找指定配置
+     *
+     * @param environment 环境
+     * @param appName     应用名
+     * @param configName  配置名(可带扩展名)
+     * @return 配置元数据, 不存在时返回null
+     */
+    public ConfigMetadata find(String environment, String appName, String configName) {
+        ensureLoaded();
+
+        String filePath = pathsByName.get(buildNameKey(environment, appName, configName));
+        return filePath != null ? configsByPath.get(filePath) : null;
+    }
+
+    /**
+     * 按Nacos配置标识查找配置
+     * 同一dataId对应多个文件时, 返回按文件路径顺序最后发布(即生效)的配置
+     *
+     * @param namespace 命名空间
+     * @param group 分组
+     * @param dataId 数据ID
+     * @return 配置元数据, 不存在时返回null
+     */
+    public ConfigMetadata findByDataId(String namespace, String group, String dataId) {
+        ensureLoaded();
+
+        String filePath = pathsByDataId.get(buildDataIdKey(namespace, group, dataId));
+        return filePath != null ? configsByPath.get(filePath) : null;
+    }
+
+    /**
+     * 获取目录中的全部配置(按文件路径排序)
+     *
+     * @return 配置列表
+     */
+    public List<ConfigMetadata> list() {
+        ensureLoaded();
+
+        List<ConfigMetadata> configList = new ArrayList<>(configsByPath.values());
+        configList.sort(Comparator.comparing(ConfigMetadata::getFilePath));
+        return configList;
+    }
+
+    /**
+     * 新增或更新单个配置
+     *
+     * @param config 配置元数据
+     */
+    public synchronized void put(ConfigMetadata config) {
+        if (!loaded) {
+            return;
+        }
+
+        ConfigMetadata previous = configsByPath.get(config.getFilePath());
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(config, configsByPath, pathsByName, pathsByDataId);
+    }
+
+    /**
+     * 移除已删除文件对应的配置
+     *
+     * @param file 文件路径
+     */
+    public synchronized void remove(Path file) {
+        if (!loaded) {
+            return;
+        }
+
+        ConfigMetadata previous = configsByPath.remove(configFileService.describeConfigFile(file).getFilePath());
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    /**
+     * 首次使用时加载目录
+     */
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    refresh();
+                }
+            }
+        }
+    }
+
+    /**
+     * 将配置加入索引
+     */
+    private void index(ConfigMetadata config, Map<String, ConfigMetadata> byPath, Map<String, String> byName,
+                       Map<String, String> byDataId) {
+        byPath.put(config.getFilePath(), config);
+        byDataId.merge(buildDataIdKey(config), config.getFilePath(),
+            (current, filePath) -> current.compareTo(filePath) >= 0 ? current : filePath);
+        byName.putIfAbsent(buildNameKey(config.getEnvironment(), config.getAppName(), config.getConfigName()),
+            config.getFilePath());
+        byName.putIfAbsent(buildNameKey(config.getEnvironment(), config.getAppName(), getFileName(config)),
+            config.getFilePath());
+    }
+
+    /**
+     * 将配置从名称索引与dataId索引中移除
+     * 同名的其他配置(如 application.yml 与 application.yaml)仍存在时, 名称改为指向其中文件路径最小的配置;
+     * 同一dataId的其他配置仍存在时, dataId改为指向其中文件路径最大的配置
+     */
+    private void unindex(ConfigMetadata config) {
+        String dataIdKey = buildDataIdKey(config);
+        if (pathsByDataId.remove(dataIdKey, config.getFilePath())) {
+            configsByPath.values().stream()
+                .filter(candidate -> !candidate.getFilePath().equals(config.getFilePath()))
+                .filter(candidate -> dataIdKey.equals(buildDataIdKey(candidate)))
+                .map(ConfigMetadata::getFilePath)
+                .max(Comparator.naturalOrder())
+                .ifPresent(filePath -> pathsByDataId.putIfAbsent(dataIdKey, filePath));
+        }
+
+        String nameKey = buildNameKey(config.getEnvironment(), config.getAppName(), config.getConfigName());
+        if (pathsByName.remove(nameKey, config.getFilePath())) {
+            repoint(nameKey, config.getFilePath(), false);
+        }
+        String fileNameKey = buildNameKey(config.getEnvironment(), config.getAppName(), getFileName(config));
+        if (pathsByName.remove(fileNameKey, config.getFilePath())) {
+            repoint(fileNameKey, config.getFilePath(), true);
+        }
+    }
+
+    /**
+     * 名称索引指向的配置被移除后, 指向同名的其他配置
+     *
+     * @param nameKey 名称索引键
+     * @param removedPath 被移除配置的文件路径
+     * @param byFileName 是否按带扩展名的文件名匹配
+     */
+    private void repoint(String nameKey, String removedPath, boolean byFileName) {
+        configsByPath.values().stream()
+            .filter(candidate -> !candidate.getFilePath().equals(removedPath))
+            .filter(candidate -> nameKey.equals(buildNameKey(candidate.getEnvironment(), candidate.getAppName(),
+                byFileName ? getFileName(candidate) : candidate.getConfigName())))
+            .map(ConfigMetadata::getFilePath)
+            .min(Comparator.naturalOrder())
+            .ifPresent(filePath -> pathsByName.putIfAbsent(nameKey, filePath));
+    }
+
+    /**
+     * 获取带扩展名的文件名
+     */
+    private String getFileName(ConfigMetadata config) {
+        String filePath = config.getFilePath();
+        int index = Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf('\\'));
+        return filePath.substring(index + 1);
+    }
+
+    /**
+     * 构建dataId索引键
+     */
+    private String buildDataIdKey(ConfigMetadata config) {
+        return buildDataIdKey(config.getNamespace(), config.getGroup(), config.getDataId());
+    }
+
+    private String buildDataIdKey(String namespace, String group, String dataId) {
+        return namespace + "/" + group + "/" + dataId;
+    }
+
+    /**
+     * 构建名称索引键
+     */
+    private String buildNameKey(String environment, String appName, String configName) {
+        return environment + "/" + appName + "/" + configName;
+    }
+}
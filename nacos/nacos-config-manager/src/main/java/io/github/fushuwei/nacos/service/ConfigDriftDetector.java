@@ -0,0 +1,367 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.BackupKind;
+import io.github.fushuwei.nacos.entity.BackupVersion;
+import io.github.fushuwei.nacos.entity.ConfigContent;
+import io.github.fushuwei.nacos.entity.ConfigDiff;
+import io.github.fushuwei.nacos.entity.ConfigDrift;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.RemoteConfigState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 配置漂移检测服务类
+ * 订阅远程配置镜像的监听通知(推送, 不做周期性全量拉取), 远程配置被控制台等外部修改且与本地文件不一致时记录漂移;
+ * 配置加入镜像时将远程内容与本服务最近一次发布的内容(备份记录)比对, 本服务未运行或配置被淘汰期间的修改同样可以发现;
+ * 按漂移处理策略仅记录、在处理前跳过同步, 或将远程内容写回本地文件(仅文件系统模式, 即WATCH同步模式);
+ * 恢复到历史版本的配置同样记录为漂移, 不论策略均在清除前跳过同步;
+ * 比对(读取本地文件、语义解析与写回)在独立的单线程中执行, 不占用Nacos监听回调线程,
+ * 同一配置等待处理期间的多次通知合并为最新一次
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ConfigDriftDetector {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private RemoteConfigMirror remoteConfigMirror;
+
+    @Autowired
+    private ConfigCatalogService configCatalogService;
+
+    @Autowired
+    private ConfigFileService configFileService;
+
+    @Autowired
+    private ConfigSemanticComparator configSemanticComparator;
+
+    @Autowired
+    private NacosConfigService nacosConfigService;
+
+    @Autowired
+    private ConfigBackupService configBackupService;
+
+    /**
+     * 配置标识(命名空间/分组/dataId) -> 漂移记录
+     */
+    private final Map<String, ConfigDrift> drifts = new ConcurrentHashMap<>();
+
+    /**
+     * 配置标识 -> 等待执行的比对(只保留最新一次通知)
+     */
+    private final Map<String, Runnable> pendingChecks = new ConcurrentHashMap<>();
+
+    private final ExecutorService driftExecutor =
+        Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory("config-drift-", true));
+
+    @PostConstruct
+    public void init() {
+        if (!configManagerProperties.isDriftDetectionEnabled()) {
+            return;
+        }
+        if (!remoteConfigMirror.isEnabled()) {
+            log.warn("远程配置镜像未启用，无法检测远程配置变更");
+            return;
+        }
+        remoteConfigMirror.addChangeListener((namespace, remote) ->
+            submit(namespace, remote, () -> onRemoteChange(namespace, remote)));
+        remoteConfigMirror.addRegisterListener((namespace, remote) ->
+            submit(namespace, remote, () -> onRemoteRegistered(namespace, remote)));
+    }
+
+    /**
+     * 停止比对线程
+     */
+    @PreDestroy
+    public void shutdown() {
+        driftExecutor.shutdownNow();
+    }
+
+    /**
+     * 获取全部漂移记录(按检测时间排序)
+     *
+     * @return 漂移记录列表
+     */
+    public List<ConfigDrift> list() {
+        List<ConfigDrift> result = new ArrayList<>(drifts.values());
+        result.sort(Comparator.comparingLong(ConfigDrift::getDetectTime));
+        return result;
+    }
+
+    /**
+     * 配置是否因漂移暂停同步(PROTECT策略, 或远程已恢复到历史版本)
+     *
+     * @param config 配置元数据
+     * @return 是否暂停同步
+     */
+    public boolean isProtected(ConfigMetadata config) {
+        ConfigDrift drift = drifts.get(buildKey(config.getNamespace(), config.getGroup(), config.getDataId()));
+        return drift != null
+            && (drift.isRestored() || configManagerProperties.getDriftPolicy() == ConfigManagerProperties.DriftPolicy.PROTECT);
+    }
+
+    /**
+     * 记录远程配置已恢复到历史版本: 恢复的内容与本地文件不一致时记录为恢复产生的漂移,
+     * 清除(或写回本地)前同步不覆盖恢复的内容
+     *
+     * @param config 配置元数据
+     * @param content 恢复的内容
+     */
+    public void markRestored(ConfigMetadata config, String content) {
+        String key = buildKey(config.getNamespace(), config.getGroup(), config.getDataId());
+        ConfigMetadata localConfig = configCatalogService.findByDataId(config.getNamespace(), config.getGroup(), config.getDataId());
+        if (localConfig == null) {
+            return;
+        }
+
+        String remoteMd5 = DigestUtil.md5Hex(content);
+        String localMd5;
+        try {
+            localMd5 = configFileService.loadContent(localConfig).getMd5();
+        } catch (IOException e) {
+            log.warn("读取本地配置失败，按与恢复内容不一致处理: {}, 错误: {}", localConfig.getFilePath(), e.getMessage());
+            localMd5 = null;
+        }
+        if (remoteMd5.equalsIgnoreCase(localMd5)) {
+            drifts.remove(key);
+            return;
+        }
+
+        drifts.put(key, ConfigDrift.builder()
+            .namespace(config.getNamespace())
+            .group(config.getGroup())
+            .dataId(config.getDataId())
+            .filePath(localConfig.getFilePath())
+            .localMd5(localMd5)
+            .remoteMd5(remoteMd5)
+            .remoteExists(true)
+            .restored(true)
+            .detectTime(System.currentTimeMillis())
+            .build());
+        log.warn("配置已恢复到历史版本，清除漂移记录前不再同步: dataId={}, group={}", config.getDataId(), config.getGroup());
+    }
+
+    /**
+     * 清除漂移记录(本地内容已发布或与远程一致, 或人工确认以本地为准)
+     *
+     * @param namespace 命名空间
+     * @param group 分组
+     * @param dataId 数据ID
+     * @return 被清除的漂移记录, 不存在时返回null
+     */
+    public ConfigDrift resolve(String namespace, String group, String dataId) {
+        ConfigDrift drift = drifts.remove(buildKey(namespace, group, dataId));
+        if (drift != null) {
+            log.info("配置漂移已处理: dataId={}, group={}", dataId, group);
+        }
+        return drift;
+    }
+
+    /**
+     * 将远程内容写回本地配置文件(仅文件系统模式, 即WATCH同步模式)
+     * 写回后文件监听会触发同步, 此时本地与远程一致, 不再发布
+     *
+     * @param namespace 命名空间
+     * @param group 分组
+     * @param dataId 数据ID
+     * @return 是否写回成功
+     */
+    public boolean writeBack(String namespace, String group, String dataId) {
+        if (!configFileService.isFileSystemSource()) {
+            log.warn("非文件系统模式(WATCH)，无法写回本地配置: dataId={}, group={}", dataId, group);
+            return false;
+        }
+
+        ConfigMetadata config = configCatalogService.findByDataId(namespace, group, dataId);
+        if (config == null) {
+            log.warn("未找到对应的本地配置文件，无法写回: dataId={}, group={}", dataId, group);
+            return false;
+        }
+
+        RemoteConfigState remote = nacosConfigService.fetchRemoteConfig(namespace, dataId, group);
+        if (remote.isFetchFailed() || !remote.isExists()) {
+            log.warn("远程配置不存在或读取失败，无法写回: dataId={}, group={}", dataId, group);
+            return false;
+        }
+
+        Path file = configFileService.resolveConfigFile(config.getFilePath());
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(tempFile, remote.getContent().getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            configCatalogService.put(configFileService.parseConfigFile(file));
+        } catch (IOException e) {
+            log.error("写回本地配置失败: {}", file, e);
+            return false;
+        }
+
+        drifts.remove(buildKey(namespace, group, dataId));
+        log.info("远程配置已写回本地: dataId={}, group={}, 文件: {}", dataId, group, config.getFilePath());
+        return true;
+    }
+
+    /**
+     * 配置加入镜像: 远程内容与本服务最近一次发布的内容不同时, 说明期间被外部修改, 按变更通知处理;
+     * 没有发布记录(首次同步或未启用备份)时无法判断, 不做比对, 避免把待发布的本地修改误判为漂移
+     *
+     * @param namespace 命名空间
+     * @param remote 加入镜像时的远程配置状态
+     */
+    private void onRemoteRegistered(String namespace, RemoteConfigState remote) {
+        List<BackupVersion> versions = configBackupService.getVersions(namespace, remote.getGroup(), remote.getDataId());
+        if (versions.isEmpty()) {
+            return;
+        }
+
+        BackupVersion latest = versions.get(versions.size() - 1);
+        if (latest.getKind() != BackupKind.PUBLISH) {
+            return;
+        }
+        if (remote.isExists() && latest.getHash().equals(DigestUtil.sha256Hex(remote.getContent()))) {
+            return;
+        }
+
+        log.info("远程配置与最近一次发布的内容不同: dataId={}, group={}", remote.getDataId(), remote.getGroup());
+        onRemoteChange(namespace, remote);
+    }
+
+    /**
+     * 按最新远程状态检测漂移(如发布冲突后重新读取), 未启用漂移检测时忽略
+     *
+     * @param namespace 命名空间
+     * @param remote 最新远程配置状态
+     */
+    public void detect(String namespace, RemoteConfigState remote) {
+        if (configManagerProperties.isDriftDetectionEnabled()) {
+            submit(namespace, remote, () -> onRemoteChange(namespace, remote));
+        }
+    }
+
+    /**
+     * 提交比对到比对线程; 同一配置已有等待执行的比对时只替换为本次, 不重复排队
+     *
+     * @param namespace 命名空间
+     * @param remote 远程配置状态
+     * @param check 比对
+     */
+    private void submit(String namespace, RemoteConfigState remote, Runnable check) {
+        String key = buildKey(namespace, remote.getGroup(), remote.getDataId());
+        if (pendingChecks.put(key, check) != null) {
+            return;
+        }
+
+        driftExecutor.execute(() -> {
+            Runnable latest = pendingChecks.remove(key);
+            if (latest == null) {
+                return;
+            }
+            try {
+                latest.run();
+            } catch (Exception e) {
+                log.warn("检测远程配置漂移失败: dataId={}, group={}, 错误: {}", remote.getDataId(), remote.getGroup(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 远程配置变更通知(在比对线程执行): 与本地文件比对, 不一致时记录漂移
+     *
+     * @param namespace 命名空间
+     * @param remote 变更后的远程配置状态
+     */
+    private void onRemoteChange(String namespace, RemoteConfigState remote) {
+        String dataId = remote.getDataId();
+        String group = remote.getGroup();
+        String key = buildKey(namespace, group, dataId);
+
+        ConfigMetadata config = configCatalogService.findByDataId(namespace, group, dataId);
+        if (config == null) {
+            return;
+        }
+
+        ConfigContent local;
+        try {
+            local = configFileService.loadContent(config);
+        } catch (IOException e) {
+            log.warn("读取本地配置失败，无法比对远程变更: {}, 错误: {}", config.getFilePath(), e.getMessage());
+            return;
+        }
+        String localContent = local.getContent();
+        String localMd5 = local.getMd5();
+
+        ConfigDiff diff = null;
+        if (remote.isExists()) {
+            if (localMd5.equalsIgnoreCase(remote.getMd5())) {
+                drifts.remove(key);
+                return;
+            }
+            if (configSemanticComparator.supports(config.getType())) {
+                diff = configSemanticComparator.diff(config.getType(), localContent, localMd5, remote.getContent(), remote.getMd5());
+                if (diff != null && diff.isEquivalent()) {
+                    drifts.remove(key);
+                    return;
+                }
+            }
+        }
+
+        // 同一漂移已记录(如镜像通知与发布冲突后重新读取先后到达)时不重复处理
+        ConfigDrift existing = drifts.get(key);
+        if (existing != null && existing.isRemoteExists() == remote.isExists()
+            && Objects.equals(existing.getRemoteMd5(), remote.getMd5()) && localMd5.equals(existing.getLocalMd5())) {
+            return;
+        }
+        // 恢复产生的漂移在清除前一直保持暂停同步
+        boolean restored = existing != null && existing.isRestored();
+
+        drifts.put(key, ConfigDrift.builder()
+            .namespace(namespace)
+            .group(group)
+            .dataId(dataId)
+            .filePath(config.getFilePath())
+            .localMd5(localMd5)
+            .remoteMd5(remote.getMd5())
+            .remoteExists(remote.isExists())
+            .restored(restored)
+            .detectTime(System.currentTimeMillis())
+            .diff(diff != null ? diff.setDataId(dataId).setGroup(group) : null)
+            .build());
+        log.warn("检测到远程配置被外部修改: dataId={}, group={}, 远程存在: {}, 处理策略: {}",
+            dataId, group, remote.isExists(), configManagerProperties.getDriftPolicy());
+
+        if (configManagerProperties.getDriftPolicy() == ConfigManagerProperties.DriftPolicy.WRITE_BACK
+            && remote.isExists() && configFileService.isFileSystemSource()) {
+            // 仅文件系统模式(WATCH)可写回, 其他模式按REPORT处理
+            writeBack(namespace, group, dataId);
+        }
+    }
+
+    private String buildKey(String namespace, String group, String dataId) {
+        return namespace + "/" + group + "/" + dataId;
+    }
+}
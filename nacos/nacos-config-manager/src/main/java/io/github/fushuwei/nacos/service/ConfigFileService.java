@@ -4,10 +4,12 @@ import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.crypto.digest.DigestUtil;
 import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ConfigContent;
 import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
@@ -15,12 +17,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * 配置文件服务类
@@ -35,10 +45,27 @@ public class ConfigFileService {
     @Autowired
     private ConfigManagerProperties configManagerProperties;
 
+    @Autowired
+    private ConfigFingerprintCache configFingerprintCache;
+
+    @Autowired
+    private ConfigSyncMetrics configSyncMetrics;
+
+    /**
+     * 支持的配置文件扩展名
+     */
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("yml", "yaml", "properties", "json", "xml");
+
     private final ResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver();
 
+    /**
+     * 扫描线程池, 文件读取与哈希计算在该线程池内并行执行
+     */
+    private final ForkJoinPool scanPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     /**
      * 扫描配置文件
+     * 只采集路径、大小、修改时间与内容MD5(流式计算), 内容在发布或备份时通过 {@link #loadContent} 按需读取
      *
      * @return 配置元数据列表
      */
@@ -46,34 +73,168 @@ public class ConfigFileService {
         List<ConfigMetadata> configList = new ArrayList<>();
 
         try {
-            String configPath = configManagerProperties.getConfigRootPath();
-            String pattern = "classpath:" + configPath + "/**/*.{yml,yaml,properties,json,xml}";
+            String pattern = buildScanPattern();
 
             log.info("开始扫描配置文件, 路径模式: {}", pattern);
 
             Resource[] resources = resourcePatternResolver.getResources(pattern);
 
-            for (Resource resource : resources) {
-                try {
-                    ConfigMetadata metadata = parseConfigFile(resource);
-                    if (metadata != null) {
-                        configList.add(metadata);
-                        log.debug("解析配置文件成功: {}", metadata.getFilePath());
-                    }
-                } catch (Exception e) {
-                    log.warn("解析配置文件失败: {}, 错误: {}", resource.getFilename(), e.getMessage());
-                }
-            }
+            configList = scanPool.submit(() -> Arrays.stream(resources)
+                .parallel()
+                .map(this::parseConfigFileQuietly)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())).get();
 
             log.info("配置文件扫描完成, 共发现 {} 个配置文件", configList.size());
 
-        } catch (IOException e) {
+        } catch (IOException | ExecutionException e) {
             log.error("扫描配置文件失败", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("扫描配置文件被中断", e);
         }
 
         return configList;
     }
 
+    /**
+     * 逐个扫描配置文件, 每解析一个文件立即回调, 不在内存中汇总结果
+     *
+     * @param consumer 配置元数据回调
+     * @throws IOException 扫描异常
+     */
+    public void scanConfigFiles(Consumer<ConfigMetadata> consumer) throws IOException {
+        for (Resource resource : resourcePatternResolver.getResources(buildScanPattern())) {
+            ConfigMetadata metadata = parseConfigFileQuietly(resource);
+            if (metadata != null) {
+                consumer.accept(metadata);
+            }
+        }
+    }
+
+    /**
+     * 读取配置内容
+     * 已加载内容时直接返回; 否则从文件读取, 并按读取到的内容计算MD5(扫描后文件可能已被修改).
+     * 配置元数据由目录共享, 读取时不修改
+     *
+     * @param config 配置元数据
+     * @return 配置内容及其MD5
+     * @throws IOException 读取异常
+     */
+    public ConfigContent loadContent(ConfigMetadata config) throws IOException {
+        if (config.getContent() != null) {
+            String md5 = StringUtils.hasText(config.getContentMd5()) ?
+                config.getContentMd5() : DigestUtil.md5Hex(config.getContent());
+            return new ConfigContent(config.getContent(), md5);
+        }
+
+        Resource resource = resourcePatternResolver.getResource(config.getLocation());
+        String content;
+        try (InputStream inputStream = resource.getInputStream()) {
+            content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        return new ConfigContent(content, DigestUtil.md5Hex(content));
+    }
+
+    /**
+     * 配置来源是否仍存在(已加载内容时视为存在)
+     *
+     * @param config 配置元数据
+     * @return 是否存在
+     */
+    public boolean exists(ConfigMetadata config) {
+        return config.getContent() != null || resourcePatternResolver.getResource(config.getLocation()).exists();
+    }
+
+    /**
+     * 关闭扫描线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        scanPool.shutdown();
+    }
+
+    /**
+     * 是否从文件系统目录读取配置(WATCH模式), 否则从classpath读取
+     *
+     * @return 是否文件系统模式
+     */
+    public boolean isFileSystemSource() {
+        return configManagerProperties.getSyncMode() == ConfigManagerProperties.SyncMode.WATCH;
+    }
+
+    /**
+     * 获取配置文件根目录(文件系统模式)
+     *
+     * @return 根目录绝对路径
+     */
+    public Path getConfigRootDirectory() {
+        return Paths.get(configManagerProperties.getConfigRootPath()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 判断文件是否为支持的配置文件
+     *
+     * @param file 文件路径
+     * @return 是否支持
+     */
+    public boolean isConfigFile(Path file) {
+        Path fileName = file.getFileName();
+        return fileName != null && SUPPORTED_EXTENSIONS.contains(getFileExtension(fileName.toString()).toLowerCase());
+    }
+
+    /**
+     * 解析文件系统中的单个配置文件
+     *
+     * @param file 文件路径
+     * @return 配置元数据
+     * @throws IOException 读取异常
+     */
+    public ConfigMetadata parseConfigFile(Path file) throws IOException {
+        return parseConfigFile(new FileSystemResource(file));
+    }
+
+    /**
+     * 根据文件路径生成配置元数据(不读取文件内容, 用于已删除的文件)
+     *
+     * @param file 文件路径
+     * @return 配置元数据
+     */
+    public ConfigMetadata describeConfigFile(Path file) {
+        return buildMetadata(getRelativeFilePath(file), file.getFileName().toString());
+    }
+
+    /**
+     * 根据相对文件路径解析文件系统中的文件(文件系统模式)
+     *
+     * @param filePath 相对文件路径, 格式: 配置根路径/环境/应用/文件名
+     * @return 文件路径
+     */
+    public Path resolveConfigFile(String filePath) {
+        String relativePath = filePath;
+        String configRoot = configManagerProperties.getConfigRootPath();
+        if (relativePath.startsWith(configRoot)) {
+            relativePath = relativePath.substring(configRoot.length());
+        }
+        if (relativePath.startsWith("/") || relativePath.startsWith("\\")) {
+            relativePath = relativePath.substring(1);
+        }
+        return getConfigRootDirectory().resolve(relativePath).normalize();
+    }
+
+    /**
+     * 构建扫描路径模式
+     *
+     * @return 路径模式
+     */
+    private String buildScanPattern() {
+        String suffix = "/**/*.{yml,yaml,properties,json,xml}";
+        if (isFileSystemSource()) {
+            return "file:" + StringUtils.cleanPath(getConfigRootDirectory().toString()) + suffix;
+        }
+        return "classpath:" + configManagerProperties.getConfigRootPath() + suffix;
+    }
+
     /**
      * 解析配置文件
      *
@@ -86,12 +247,60 @@ public class ConfigFileService {
             return null;
         }
 
-        // 读取文件内容
-        String content = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        long startTime = System.nanoTime();
 
         // 获取文件路径
         String filePath = getRelativeFilePath(resource);
 
+        String location = resource.getURI().toString();
+        long size = resource.contentLength();
+        long lastModified = resource.lastModified();
+
+        // 大小与修改时间未变化时复用缓存的MD5, 否则流式计算, 不在内存中保留文件内容
+        String contentMd5 = configFingerprintCache.lookup(location, size, lastModified);
+        if (contentMd5 == null) {
+            try (InputStream inputStream = resource.getInputStream()) {
+                contentMd5 = DigestUtil.md5Hex(inputStream);
+            }
+            configFingerprintCache.update(location, size, lastModified, contentMd5);
+        }
+
+        configSyncMetrics.recordPhase(ConfigSyncMetrics.PHASE_PARSE, System.nanoTime() - startTime);
+
+        return buildMetadata(filePath, filename)
+            .setLocation(location)
+            .setSize(size)
+            .setLastModified(lastModified)
+            .setContentMd5(contentMd5);
+    }
+
+    /**
+     * 解析配置文件, 失败时记录日志并返回null
+     *
+     * @param resource 资源文件
+     * @return 配置元数据
+     */
+    private ConfigMetadata parseConfigFileQuietly(Resource resource) {
+        try {
+            ConfigMetadata metadata = parseConfigFile(resource);
+            if (metadata != null) {
+                log.debug("解析配置文件成功: {}", metadata.getFilePath());
+            }
+            return metadata;
+        } catch (Exception e) {
+            log.warn("解析配置文件失败: {}, 错误: {}", resource.getFilename(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 根据文件路径构建配置元数据(不包含内容相关信息)
+     *
+     * @param filePath 相对文件路径
+     * @param filename 文件名
+     * @return 配置元数据
+     */
+    private ConfigMetadata buildMetadata(String filePath, String filename) {
         // 解析文件路径，提取环境、应用名等信息
         PathInfo pathInfo = parseFilePath(filePath);
 
@@ -100,14 +309,12 @@ public class ConfigFileService {
             .dataId(generateDataId(pathInfo))
             .group(generateGroup(pathInfo))
             .namespace(pathInfo.environment)
-            .content(content)
             .type(getFileExtension(filename))
             .description(generateDescription(pathInfo))
             .appName(pathInfo.appName)
+            .configName(pathInfo.configName)
             .environment(pathInfo.environment)
             .filePath(filePath)
-            .lastModified(System.currentTimeMillis())
-            .contentMd5(DigestUtil.md5Hex(content))
             .build();
     }
 
@@ -118,6 +325,14 @@ public class ConfigFileService {
      * @return 相对路径
      */
     private String getRelativeFilePath(Resource resource) {
+        if (isFileSystemSource() && resource.isFile()) {
+            try {
+                return getRelativeFilePath(resource.getFile().toPath());
+            } catch (IOException e) {
+                return resource.getFilename();
+            }
+        }
+
         try {
             String uri = resource.getURI().toString();
             String configRoot = configManagerProperties.getConfigRootPath();
@@ -131,6 +346,17 @@ public class ConfigFileService {
         }
     }
 
+    /**
+     * 获取文件系统中文件的相对路径, 格式与classpath模式一致: 配置根路径/环境/应用/文件名
+     *
+     * @param file 文件路径
+     * @return 相对路径
+     */
+    private String getRelativeFilePath(Path file) {
+        Path relative = getConfigRootDirectory().relativize(file.toAbsolutePath().normalize());
+        return configManagerProperties.getConfigRootPath() + "/" + StringUtils.cleanPath(relative.toString());
+    }
+
     /**
      * 解析文件路径信息
      * 路径格式示例: configs/dev/user-service/application.yml
@@ -0,0 +1,182 @@
+package io.github.fushuwei.nacos.service;
+
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 配置文件指纹缓存
+ * 持久化记录每个配置文件的大小、修改时间与内容MD5, 文件未变化时扫描无需重新读取
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ConfigFingerprintCache {
+
+    /**
+     * 缓存文件名(位于备份目录下)
+     */
+    private static final String CACHE_FILE_NAME = "fingerprints.cache";
+
+    /**
+     * 文件系统修改时间精度(毫秒), 哈希时刻与修改时间过近的条目不可信
+     */
+    private static final long MTIME_GRANULARITY_MILLIS = 2000;
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    /**
+     * 文件位置 -> 指纹
+     */
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * 启动时加载缓存文件
+     */
+    @PostConstruct
+    public void load() {
+        if (!configManagerProperties.isFingerprintCacheEnabled()) {
+            return;
+        }
+
+        Path cacheFile = getCacheFile();
+        if (!Files.isRegularFile(cacheFile)) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 5);
+                if (parts.length == 5) {
+                    fingerprints.put(parts[4], new Fingerprint(parts[0],
+                        Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3])));
+                }
+            }
+            log.info("加载配置文件指纹缓存成功, 共 {} 条: {}", fingerprints.size(), cacheFile);
+        } catch (IOException | RuntimeException e) {
+            fingerprints.clear();
+            log.warn("加载配置文件指纹缓存失败，将重新计算: {}, 错误: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    /**
+     * 查找文件的内容MD5
+     *
+     * @param location     文件位置
+     * @param size         文件大小
+     * @param lastModified 文件修改时间
+     * @return 大小与修改时间均未变化时返回缓存的MD5, 否则返回null
+     */
+    public String lookup(String location, long size, long lastModified) {
+        if (!configManagerProperties.isFingerprintCacheEnabled()) {
+            return null;
+        }
+
+        Fingerprint fingerprint = fingerprints.get(location);
+        if (fingerprint == null || fingerprint.size != size || fingerprint.lastModified != lastModified) {
+            return null;
+        }
+
+        // 哈希时文件可能仍在同一时间精度内被修改, 此类条目需要重新计算
+        if (fingerprint.hashedAt - lastModified < MTIME_GRANULARITY_MILLIS) {
+            return null;
+        }
+
+        return fingerprint.md5;
+    }
+
+    /**
+     * 更新文件指纹
+     *
+     * @param location     文件位置
+     * @param size         文件大小
+     * @param lastModified 文件修改时间
+     * @param md5          内容MD5
+     */
+    public void update(String location, long size, long lastModified, String md5) {
+        if (configManagerProperties.isFingerprintCacheEnabled()) {
+            fingerprints.put(location, new Fingerprint(md5, size, lastModified, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 保存缓存文件, 只保留本次扫描到的文件
+     *
+     * @param locations 本次扫描到的文件位置
+     */
+    public synchronized void save(Collection<String> locations) {
+        if (!configManagerProperties.isFingerprintCacheEnabled()) {
+            return;
+        }
+
+        Set<String> retained = new HashSet<>(locations);
+        fingerprints.keySet().retainAll(retained);
+
+        Path cacheFile = getCacheFile();
+        Path tempFile = cacheFile.resolveSibling(CACHE_FILE_NAME + ".tmp");
+
+        try {
+            Files.createDirectories(cacheFile.getParent());
+
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Fingerprint> entry : fingerprints.entrySet()) {
+                    Fingerprint fingerprint = entry.getValue();
+                    writer.write(fingerprint.md5 + "\t" + fingerprint.size + "\t" + fingerprint.lastModified +
+                        "\t" + fingerprint.hashedAt + "\t" + entry.getKey());
+                    writer.newLine();
+                }
+            }
+
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("配置文件指纹缓存已保存, 共 {} 条", fingerprints.size());
+        } catch (IOException e) {
+            log.warn("保存配置文件指纹缓存失败: {}, 错误: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取缓存文件路径
+     *
+     * @return 缓存文件路径
+     */
+    private Path getCacheFile() {
+        return Paths.get(configManagerProperties.getBackupPath(), CACHE_FILE_NAME).toAbsolutePath();
+    }
+
+    /**
+     * 文件指纹
+     */
+    private static class Fingerprint {
+        final String md5;
+        final long size;
+        final long lastModified;
+        final long hashedAt;
+
+        Fingerprint(String md5, long size, long lastModified, long hashedAt) {
+            this.md5 = md5;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hashedAt = hashedAt;
+        }
+    }
+}
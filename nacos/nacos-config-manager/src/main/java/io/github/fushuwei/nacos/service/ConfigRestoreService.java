@@ -0,0 +1,270 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.BackupVersion;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.RemoteConfigState;
+import io.github.fushuwei.nacos.entity.RestoreReport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 配置恢复服务类
+ * 根据备份索引查找指定时间点生效的版本, 在独立的恢复线程池中后台并行发布, 不占用同步线程池, 按任务ID查询结果;
+ * 恢复前先备份远程当前内容, 恢复操作本身也可以再回滚;
+ * 每个配置的读取、备份与发布在同步服务的配置锁内执行, 不会与同一配置的同步交错;
+ * 恢复的内容与本地文件不一致时记录为恢复产生的漂移, 清除漂移记录(或写回本地)前同步不会以本地文件覆盖恢复的内容
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ConfigRestoreService {
+
+    /**
+     * 保留的历史恢复任务数量
+     */
+    private static final int MAX_REPORT_HISTORY = 20;
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private ConfigBackupService configBackupService;
+
+    @Autowired
+    private NacosConfigService nacosConfigService;
+
+    @Autowired
+    private ConfigSyncService configSyncService;
+
+    @Autowired
+    private ConfigDriftDetector configDriftDetector;
+
+    /**
+     * 恢复线程池, 与同步线程池分开, 恢复不会占用同步的并发度
+     */
+    private ExecutorService restoreExecutor;
+
+    /**
+     * 任务ID -> 恢复结果报告(按提交顺序, 超出数量时淘汰最早的任务)
+     */
+    private final Map<String, RestoreReport> reports = new LinkedHashMap<String, RestoreReport>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RestoreReport> eldest) {
+            return size() > MAX_REPORT_HISTORY;
+        }
+    };
+
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, configManagerProperties.getSyncParallelism());
+        restoreExecutor = Executors.newFixedThreadPool(parallelism, ThreadUtil.newNamedThreadFactory("config-restore-", true));
+    }
+
+    /**
+     * 停止恢复线程
+     */
+    @PreDestroy
+    public void shutdown() {
+        restoreExecutor.shutdownNow();
+    }
+
+    /**
+     * 查询恢复任务
+     *
+     * @param id 任务ID
+     * @return 恢复结果报告, 不存在时返回null
+     */
+    public synchronized RestoreReport getReport(String id) {
+        return reports.get(id);
+    }
+
+    /**
+     * 将单个配置恢复到指定时间点(后台执行)
+     *
+     * @param namespace 命名空间
+     * @param group 分组
+     * @param dataId 数据ID
+     * @param time 时间点(毫秒)
+     * @return 恢复结果报告(执行中)
+     */
+    public RestoreReport restoreConfig(String namespace, String group, String dataId, long time) {
+        BackupVersion version = configBackupService.findVersionAt(namespace, group, dataId, time);
+        return restore(Collections.singletonMap(namespace + "/" + group + "/" + dataId, version), time);
+    }
+
+    /**
+     * 将环境(可选应用)下的全部配置恢复到指定时间点(后台执行)
+     *
+     * @param environment 环境
+     * @param appName 应用名称, 为空时恢复整个环境
+     * @param time 时间点(毫秒)
+     * @return 恢复结果报告(执行中)
+     */
+    public RestoreReport restoreEnvironment(String environment, String appName, long time) {
+        return restore(configBackupService.findVersionsAt(environment, appName, time), time);
+    }
+
+    /**
+     * 在恢复线程池中并行恢复一组配置, 全部完成后填写报告
+     * 时间点无可用版本的配置(当时不存在或已删除)只计数, 不删除远程配置
+     *
+     * @param targets 配置唯一标识 -> 目标版本
+     * @param time 时间点(毫秒)
+     * @return 恢复结果报告(执行中)
+     */
+    private RestoreReport restore(Map<String, BackupVersion> targets, long time) {
+        RestoreReport report = new RestoreReport();
+        report.setId(IdUtil.fastSimpleUUID());
+        report.setRunning(true);
+        report.setStartTime(System.currentTimeMillis());
+        report.setTargetTime(time);
+        report.setTotal(targets.size());
+        synchronized (this) {
+            reports.put(report.getId(), report);
+        }
+
+        log.info("开始恢复配置到时间点: {}, 配置数: {}, 任务: {}", time, targets.size(), report.getId());
+
+        AtomicInteger restoredCount = new AtomicInteger(0);
+        AtomicInteger unchangedCount = new AtomicInteger(0);
+        AtomicInteger missingCount = new AtomicInteger(0);
+        List<String> failedConfigs = Collections.synchronizedList(new ArrayList<>());
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(targets.size());
+        for (Map.Entry<String, BackupVersion> entry : targets.entrySet()) {
+            BackupVersion version = entry.getValue();
+            if (version == null) {
+                log.info("时间点无可用版本，跳过恢复: {}", entry.getKey());
+                missingCount.incrementAndGet();
+                continue;
+            }
+
+            futures.add(CompletableFuture.runAsync(() -> {
+                RestoreResult result = restoreVersion(version);
+                if (result == RestoreResult.RESTORED) {
+                    restoredCount.incrementAndGet();
+                } else if (result == RestoreResult.UNCHANGED) {
+                    unchangedCount.incrementAndGet();
+                } else {
+                    failedConfigs.add(entry.getKey());
+                }
+            }, restoreExecutor));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            report.setRestoredCount(restoredCount.get());
+            report.setUnchangedCount(unchangedCount.get());
+            report.setMissingCount(missingCount.get());
+            report.setFailedCount(failedConfigs.size());
+            report.setFailedConfigs(new ArrayList<>(failedConfigs));
+            report.setDuration(System.currentTimeMillis() - report.getStartTime());
+            if (error != null) {
+                log.error("配置恢复异常中止", error);
+                report.setMessage("恢复异常: " + error.getMessage());
+            } else if (report.getMissingCount() > 0) {
+                report.setMessage("部分配置在指定时间点无可用版本");
+            } else {
+                report.setMessage("配置恢复完成");
+            }
+            report.setRunning(false);
+
+            log.info("配置恢复完成 - 恢复: {}, 未变更: {}, 无可用版本: {}, 失败: {}, 耗时: {} ms",
+                report.getRestoredCount(), report.getUnchangedCount(), report.getMissingCount(),
+                report.getFailedCount(), report.getDuration());
+        });
+
+        return report;
+    }
+
+    /**
+     * 恢复单个版本
+     *
+     * @param version 目标版本
+     * @return 恢复结果
+     */
+    private RestoreResult restoreVersion(BackupVersion version) {
+        ConfigMetadata config = ConfigMetadata.builder()
+            .dataId(version.getDataId())
+            .group(version.getGroup())
+            .namespace(version.getNamespace())
+            .environment(version.getEnvironment())
+            .appName(version.getAppName())
+            .type(FileUtil.extName(version.getDataId()))
+            .build();
+
+        return configSyncService.runLocked(config, () -> restoreVersion(version, config));
+    }
+
+    /**
+     * 恢复单个版本(调用方持有配置锁)
+     *
+     * @param version 目标版本
+     * @param config 配置元数据
+     * @return 恢复结果
+     */
+    private RestoreResult restoreVersion(BackupVersion version, ConfigMetadata config) {
+        String dataId = version.getDataId();
+        String group = version.getGroup();
+
+        try {
+            String content = configBackupService.readObject(version.getHash());
+
+            RemoteConfigState remote = nacosConfigService.fetchRemoteConfig(version.getNamespace(), dataId, group);
+            if (remote.isFetchFailed()) {
+                log.warn("读取远程配置失败，跳过恢复: dataId={}, group={}", dataId, group);
+                return RestoreResult.FAILED;
+            }
+            if (remote.isExists() && DigestUtil.md5Hex(content).equalsIgnoreCase(remote.getMd5())) {
+                return RestoreResult.UNCHANGED;
+            }
+
+            // 恢复前备份远程当前内容
+            if (remote.isExists() && !configBackupService.backupConfig(config, remote.getContent())) {
+                log.warn("配置备份失败，取消恢复: dataId={}, group={}", dataId, group);
+                return RestoreResult.FAILED;
+            }
+
+            if (!nacosConfigService.publishConfig(config, content)) {
+                log.warn("配置恢复失败: dataId={}, group={}", dataId, group);
+                return RestoreResult.FAILED;
+            }
+
+            configBackupService.recordPublishAsync(config, content);
+            // 恢复的内容与本地文件不一致时暂停同步, 避免下次同步以本地文件覆盖
+            configDriftDetector.markRestored(config, content);
+            log.info("配置恢复成功: dataId={}, group={}, version={}", dataId, group, version.getTimestamp());
+            return RestoreResult.RESTORED;
+
+        } catch (Exception e) {
+            log.error("恢复配置异常: dataId={}, group={}", dataId, group, e);
+            return RestoreResult.FAILED;
+        }
+    }
+
+    /**
+     * 单个配置恢复结果
+     */
+    private enum RestoreResult {
+        RESTORED, UNCHANGED, FAILED
+    }
+}
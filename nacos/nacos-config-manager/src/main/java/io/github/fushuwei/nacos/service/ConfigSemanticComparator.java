@@ -0,0 +1,242 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ConfigDiff;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 配置语义比对组件
+ * 将yml/yaml/properties/json内容解析并展开为有序的 键 -> 值 结构, 忽略空白、注释与键顺序差异;
+ * 值带标量类型标记(如 8080 与 "8080"、true 与 "true"、~ 与 "null" 视为不同), 展开结果按 类型 + 内容MD5 缓存(LRU)
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ConfigSemanticComparator {
+
+    /**
+     * 展开值的类型标记
+     */
+    private static final String TAG_NULL = "null:";
+    private static final String TAG_BOOL = "bool:";
+    private static final String TAG_NUMBER = "num:";
+    private static final String TAG_TIME = "time:";
+    private static final String TAG_BINARY = "bin:";
+    private static final String TAG_STRING = "str:";
+    private static final String TAG_MAP = "map:";
+    private static final String TAG_LIST = "list:";
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    /**
+     * 类型:内容MD5 -> 展开结果
+     */
+    private Map<String, SortedMap<String, String>> normalizedCache;
+
+    /**
+     * 初始化解析结果缓存(LRU)
+     */
+    @PostConstruct
+    public void init() {
+        int capacity = Math.max(1, configManagerProperties.getSemanticDiffCacheSize());
+        normalizedCache = new LinkedHashMap<String, SortedMap<String, String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SortedMap<String, String>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 是否支持语义比对
+     *
+     * @param type 配置类型(文件扩展名)
+     * @return 是否支持
+     */
+    public boolean supports(String type) {
+        if (!configManagerProperties.isSemanticDiffEnabled() || !StringUtils.hasText(type)) {
+            return false;
+        }
+
+        switch (type.toLowerCase()) {
+            case "yml":
+            case "yaml":
+            case "properties":
+            case "json":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 比对本地与远程配置内容
+     *
+     * @param type 配置类型
+     * @param localContent 本地内容
+     * @param localMd5 本地内容MD5, 为空时重新计算
+     * @param remoteContent 远程内容
+     * @param remoteMd5 远程内容MD5, 为空时重新计算
+     * @return 键级差异, 任一方无法解析时返回null
+     */
+    public ConfigDiff diff(String type, String localContent, String localMd5, String remoteContent, String remoteMd5) {
+        SortedMap<String, String> local = normalize(type, localContent, localMd5);
+        SortedMap<String, String> remote = normalize(type, remoteContent, remoteMd5);
+        if (local == null || remote == null) {
+            return null;
+        }
+
+        List<String> addedKeys = new ArrayList<>();
+        List<String> changedKeys = new ArrayList<>();
+        for (Map.Entry<String, String> entry : local.entrySet()) {
+            if (!remote.containsKey(entry.getKey())) {
+                addedKeys.add(entry.getKey());
+            } else if (!entry.getValue().equals(remote.get(entry.getKey()))) {
+                changedKeys.add(entry.getKey());
+            }
+        }
+
+        List<String> removedKeys = new ArrayList<>();
+        for (String key : remote.keySet()) {
+            if (!local.containsKey(key)) {
+                removedKeys.add(key);
+            }
+        }
+
+        return ConfigDiff.builder()
+            .equivalent(addedKeys.isEmpty() && removedKeys.isEmpty() && changedKeys.isEmpty())
+            .addedKeys(addedKeys)
+            .removedKeys(removedKeys)
+            .changedKeys(changedKeys)
+            .build();
+    }
+
+    /**
+     * 解析并展开配置内容(带缓存)
+     *
+     * @param type 配置类型
+     * @param content 配置内容
+     * @param md5 内容MD5, 为空时重新计算
+     * @return 展开结果, 无法解析时返回null
+     */
+    private SortedMap<String, String> normalize(String type, String content, String md5) {
+        if (content == null) {
+            return null;
+        }
+
+        String cacheKey = type.toLowerCase() + ":" + (StringUtils.hasText(md5) ? md5.toLowerCase() : DigestUtil.md5Hex(content));
+        synchronized (this) {
+            SortedMap<String, String> cached = normalizedCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        SortedMap<String, String> normalized;
+        try {
+            normalized = Collections.unmodifiableSortedMap(parse(type.toLowerCase(), content));
+        } catch (Exception e) {
+            log.debug("配置内容解析失败，回退为文本比对: type={}, 错误: {}", type, e.getMessage());
+            return null;
+        }
+
+        synchronized (this) {
+            normalizedCache.put(cacheKey, normalized);
+        }
+        return normalized;
+    }
+
+    /**
+     * 解析配置内容为有序的 键 -> 值 结构
+     * json是yaml的子集, 统一由snakeyaml解析
+     */
+    private SortedMap<String, String> parse(String type, String content) throws IOException {
+        SortedMap<String, String> result = new TreeMap<>();
+
+        if ("properties".equals(type)) {
+            Properties properties = new Properties();
+            properties.load(new StringReader(content));
+            properties.stringPropertyNames().forEach(key -> result.put(key, TAG_STRING + properties.getProperty(key)));
+            return result;
+        }
+
+        Yaml yaml = new Yaml(new SafeConstructor(new LoaderOptions()));
+        List<Object> documents = new ArrayList<>();
+        yaml.loadAll(content).forEach(documents::add);
+
+        // 多文档yaml按文档序号区分键
+        for (int i = 0; i < documents.size(); i++) {
+            flatten(documents.size() > 1 ? "[" + i + "]" : "", documents.get(i), result);
+        }
+        return result;
+    }
+
+    /**
+     * 展开嵌套结构: 映射键以"."连接, 列表元素以"[序号]"表示
+     */
+    private void flatten(String prefix, Object value, SortedMap<String, String> result) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map.isEmpty()) {
+                result.put(prefix, TAG_MAP + "{}");
+            }
+            map.forEach((key, child) -> flatten(prefix.isEmpty() ? String.valueOf(key) : prefix + "." + key, child, result));
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            if (list.isEmpty()) {
+                result.put(prefix, TAG_LIST + "[]");
+            }
+            for (int i = 0; i < list.size(); i++) {
+                flatten(prefix + "[" + i + "]", list.get(i), result);
+            }
+        } else if (value != null || !prefix.isEmpty()) {
+            result.put(prefix, formatScalar(value));
+        }
+    }
+
+    /**
+     * 标量值加类型标记, 字符串形式相同但类型不同的值(如 8080 与 "8080")不视为等价
+     */
+    private String formatScalar(Object value) {
+        if (value == null) {
+            return TAG_NULL;
+        }
+        if (value instanceof Boolean) {
+            return TAG_BOOL + value;
+        }
+        if (value instanceof Number) {
+            return TAG_NUMBER + value;
+        }
+        if (value instanceof Date) {
+            return TAG_TIME + ((Date) value).getTime();
+        }
+        if (value instanceof byte[]) {
+            return TAG_BINARY + Base64.getEncoder().encodeToString((byte[]) value);
+        }
+        return TAG_STRING + value;
+    }
+}
@@ -0,0 +1,253 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.core.thread.ThreadUtil;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.SyncJob;
+import io.github.fushuwei.nacos.entity.SyncJobStatus;
+import io.github.fushuwei.nacos.entity.SyncReport;
+import io.github.fushuwei.nacos.entity.SyncScope;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 配置同步协调服务类
+ * 启动、定时、手动与文件监听触发的同步统一经由此处调度: 同一时刻最多一个同步在执行、一个同步在等待,
+ * 执行期间的新触发合并到等待中的同步(范围取并集), 避免多个全量同步重叠执行;
+ * 同步指定配置与删除远程配置同样在协调线程上执行, 与同步任务串行, 不会与同一配置的同步交错
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ConfigSyncCoordinator {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private ConfigSyncService configSyncService;
+
+    @Autowired
+    private ConfigCatalogService configCatalogService;
+
+    @Autowired
+    private SyncJobService syncJobService;
+
+    @Autowired
+    private PublishOutboxReplayer publishOutboxReplayer;
+
+    private final ExecutorService coordinatorExecutor =
+        Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory("sync-coordinator-", true));
+
+    private SyncJob runningJob;
+
+    private SyncJob pendingJob;
+
+    /**
+     * 应用启动完成后先排空发布发件箱(上次运行未完成的发布), 再执行配置同步
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        publishOutboxReplayer.drain();
+
+        if (!configManagerProperties.isSyncEnabled()) {
+            log.info("配置同步已禁用，跳过启动时同步");
+            return;
+        }
+
+        ConfigManagerProperties.SyncMode syncMode = configManagerProperties.getSyncMode();
+
+        if (syncMode == ConfigManagerProperties.SyncMode.STARTUP ||
+            syncMode == ConfigManagerProperties.SyncMode.BOTH ||
+            syncMode == ConfigManagerProperties.SyncMode.WATCH) {
+            log.info("应用启动完成，开始执行配置同步...");
+            trigger(SyncScope.fullScope(), false);
+        }
+    }
+
+    /**
+     * 定时同步配置
+     */
+    @Scheduled(fixedRateString = "#{${config.manager.sync-interval:30} * 60 * 1000}")
+    public void scheduledSync() {
+        if (!configManagerProperties.isSyncEnabled()) {
+            return;
+        }
+
+        ConfigManagerProperties.SyncMode syncMode = configManagerProperties.getSyncMode();
+
+        if (syncMode == ConfigManagerProperties.SyncMode.SCHEDULE ||
+            syncMode == ConfigManagerProperties.SyncMode.BOTH) {
+            log.info("开始执行定时配置同步...");
+            trigger(SyncScope.fullScope(), false);
+        }
+    }
+
+    /**
+     * 触发同步
+     * 没有同步在执行时立即执行; 否则合并到等待中的同步, 当前同步结束后执行
+     *
+     * @param scope 同步范围
+     * @param attachToRunning 正在执行的同步已包含该范围时是否直接关联(用于手动重复提交)
+     * @return 负责该范围的同步任务
+     */
+    public synchronized SyncJob trigger(SyncScope scope, boolean attachToRunning) {
+        if (runningJob == null) {
+            runningJob = syncJobService.createJob(scope);
+            start(runningJob);
+            return runningJob;
+        }
+
+        if (attachToRunning && !runningJob.isCancelRequested() && runningJob.getScope().covers(scope)) {
+            log.info("同步正在执行且包含本次范围，关联到已有任务: {}", runningJob.getId());
+            return runningJob;
+        }
+
+        if (pendingJob == null || pendingJob.isCancelRequested()) {
+            if (pendingJob != null) {
+                pendingJob.setStatus(SyncJobStatus.CANCELLED);
+                pendingJob.setEndTime(System.currentTimeMillis());
+            }
+            pendingJob = syncJobService.createJob(scope);
+            log.info("同步正在执行，新触发进入等待: {}", pendingJob.getId());
+        } else {
+            pendingJob.setScope(new SyncScope().merge(pendingJob.getScope()).merge(scope));
+            log.debug("同步正在执行，新触发已合并到等待中的同步: {}", pendingJob.getId());
+        }
+        return pendingJob;
+    }
+
+    /**
+     * 同步指定配置(在协调线程上执行, 正在执行的同步结束后开始)
+     *
+     * @param environment 环境
+     * @param appName 应用名
+     * @param configName 配置名
+     * @return 同步结果Future
+     */
+    public CompletableFuture<Boolean> syncSpecificConfig(String environment, String appName, String configName) {
+        return submit(() -> configSyncService.syncSpecificConfig(environment, appName, configName));
+    }
+
+    /**
+     * 删除远程配置(在协调线程上执行, 正在执行的同步结束后开始)
+     *
+     * @param config 配置元数据
+     * @return 删除结果Future
+     */
+    public CompletableFuture<Boolean> removeConfig(ConfigMetadata config) {
+        return submit(() -> configSyncService.removeConfig(config));
+    }
+
+    /**
+     * 提交单个配置操作到协调线程
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(operation, coordinatorExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("同步协调线程已停止", e));
+        }
+    }
+
+    /**
+     * 提交同步任务到协调线程
+     */
+    private void start(SyncJob job) {
+        coordinatorExecutor.execute(() -> {
+            try {
+                run(job);
+            } finally {
+                onFinished();
+            }
+        });
+    }
+
+    /**
+     * 当前同步结束, 启动等待中的同步
+     */
+    private synchronized void onFinished() {
+        runningJob = pendingJob;
+        pendingJob = null;
+        if (runningJob != null && !coordinatorExecutor.isShutdown()) {
+            start(runningJob);
+        }
+    }
+
+    /**
+     * 执行同步任务
+     *
+     * @param job 同步任务
+     */
+    private void run(SyncJob job) {
+        if (job.isCancelRequested()) {
+            job.setStatus(SyncJobStatus.CANCELLED);
+            job.setEndTime(System.currentTimeMillis());
+            return;
+        }
+
+        job.setStatus(SyncJobStatus.RUNNING);
+        job.setStartTime(System.currentTimeMillis());
+
+        try {
+            SyncScope scope = job.getScope();
+            SyncReport report;
+            if (scope.isFull()) {
+                report = configSyncService.syncAllConfigs(job);
+            } else {
+                // 指定环境时重新扫描, 仅指定文件时使用配置目录(文件监听已更新目录)
+                List<ConfigMetadata> configList = scope.getEnvironments().isEmpty() ?
+                    configCatalogService.list() : configCatalogService.refresh();
+                report = configSyncService.syncConfigs(
+                    configList.stream().filter(scope::includes).collect(Collectors.toList()), job);
+            }
+
+            job.setReport(report);
+            if (report.isAborted()) {
+                job.setStatus(SyncJobStatus.FAILED);
+                job.setMessage("同步异常中止");
+            } else {
+                job.setStatus(job.isCancelRequested() ? SyncJobStatus.CANCELLED : SyncJobStatus.COMPLETED);
+                job.setMessage(String.format("变更发布: %d, 未变更: %d, 跳过: %d, 失败: %d",
+                    report.getSuccessCount(), report.getUnchangedCount(), report.getSkippedCount(), report.getFailedCount()));
+            }
+        } catch (Exception e) {
+            log.error("同步任务执行异常: {}", job.getId(), e);
+            job.setStatus(SyncJobStatus.FAILED);
+            job.setMessage("同步失败: " + e.getMessage());
+        } finally {
+            job.setEndTime(System.currentTimeMillis());
+            log.info("同步任务结束: {}, 状态: {}, 已处理: {}/{}", job.getId(), job.getStatus(),
+                job.getProcessed().get(), job.getTotal());
+        }
+    }
+
+    /**
+     * 停止协调线程, 正在执行的同步协作式取消
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (runningJob != null) {
+            runningJob.setCancelRequested(true);
+        }
+        if (pendingJob != null) {
+            pendingJob.setCancelRequested(true);
+        }
+        coordinatorExecutor.shutdown();
+    }
+}
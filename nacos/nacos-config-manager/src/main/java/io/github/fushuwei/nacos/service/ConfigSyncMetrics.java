@@ -0,0 +1,128 @@
+package io.github.fushuwei.nacos.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 配置同步指标组件(Micrometer)
+ * 各同步阶段耗时记录为带直方图的Timer, 同步结果按命名空间计数, 通过Actuator暴露给Prometheus
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Component
+public class ConfigSyncMetrics {
+
+    /**
+     * 扫描配置目录
+     */
+    public static final String PHASE_SCAN = "scan";
+
+    /**
+     * 解析单个配置文件(元数据与内容MD5)
+     */
+    public static final String PHASE_PARSE = "parse";
+
+    /**
+     * 批量拉取远程配置生成同步计划
+     */
+    public static final String PHASE_PLAN = "plan";
+
+    /**
+     * 单独读取远程配置
+     */
+    public static final String PHASE_FETCH = "fetch";
+
+    /**
+     * 发布前语义比对
+     */
+    public static final String PHASE_DIFF = "diff";
+
+    /**
+     * 备份远程配置(从提交备份到备份落盘)
+     */
+    public static final String PHASE_BACKUP = "backup";
+
+    /**
+     * 发布配置
+     */
+    public static final String PHASE_PUBLISH = "publish";
+
+    /**
+     * ZIP批量导入(单个命名空间)
+     */
+    public static final String PHASE_IMPORT = "import";
+
+    /**
+     * 整批同步
+     */
+    public static final String PHASE_TOTAL = "total";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> phaseTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> resultCounters = new ConcurrentHashMap<>();
+
+    /**
+     * 最近一次成功(无失败项)同步的完成时间(毫秒)
+     */
+    private final AtomicLong lastSuccessTime = new AtomicLong(0);
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("config.sync.last.success", lastSuccessTime, value -> value.get() / 1000.0)
+            .description("最近一次成功同步的完成时间(秒)")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 记录同步阶段耗时
+     *
+     * @param phase 阶段
+     * @param elapsedNanos 耗时(纳秒)
+     */
+    public void recordPhase(String phase, long elapsedNanos) {
+        phaseTimers.computeIfAbsent(phase, key -> Timer.builder("config.sync.phase")
+                .description("配置同步各阶段耗时")
+                .tag("phase", key)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录单个配置的同步结果
+     *
+     * @param namespace 命名空间
+     * @param result 同步结果
+     */
+    public void recordResult(String namespace, String result) {
+        String ns = namespace != null ? namespace : "";
+        resultCounters.computeIfAbsent(ns + "/" + result, key -> Counter.builder("config.sync.results")
+                .description("配置同步结果计数")
+                .tag("namespace", ns)
+                .tag("result", result)
+                .register(meterRegistry))
+            .increment();
+    }
+
+    /**
+     * 标记一次成功同步
+     */
+    public void markSuccess() {
+        lastSuccessTime.set(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.config.NacosConfigServicePool;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.RemoteConfigState;
+import io.github.fushuwei.nacos.entity.SyncAction;
+import io.github.fushuwei.nacos.entity.SyncPlanItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 配置同步计划服务类
+ * 已镜像的配置直接使用远程配置镜像, 其余配置按分组批量拉取远程配置并加入镜像,
+ * 在本地计算每个配置的同步动作, 避免逐个读取Nacos
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ConfigSyncPlanner {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private NacosOpenApiClient nacosOpenApiClient;
+
+    @Autowired
+    private NacosConfigServicePool nacosConfigServicePool;
+
+    @Autowired
+    private ConfigSyncMetrics configSyncMetrics;
+
+    @Autowired
+    private RemoteConfigMirror remoteConfigMirror;
+
+    /**
+     * 生成同步计划
+     *
+     * @param configList 本地配置列表
+     * @return 同步计划
+     */
+    public List<SyncPlanItem> plan(List<ConfigMetadata> configList) {
+        long startTime = System.nanoTime();
+        Map<String, Map<String, RemoteConfigState>> inventory = configManagerProperties.isBulkPlanEnabled() ?
+            loadRemoteInventory(configList) : new HashMap<>();
+        configSyncMetrics.recordPhase(ConfigSyncMetrics.PHASE_PLAN, System.nanoTime() - startTime);
+
+        List<SyncPlanItem> plan = new ArrayList<>(configList.size());
+        Map<SyncAction, Integer> actionCounts = new EnumMap<>(SyncAction.class);
+        int unplannedCount = 0;
+
+        boolean mirrorEnabled = remoteConfigMirror.isEnabled();
+        int mirroredCount = 0;
+        if (mirrorEnabled) {
+            remoteConfigMirror.ensureCapacity(configList.size());
+        }
+
+        for (ConfigMetadata config : configList) {
+            RemoteConfigState remote = mirrorEnabled ?
+                remoteConfigMirror.get(config.getNamespace(), config.getDataId(), config.getGroup()) : null;
+
+            if (remote != null) {
+                mirroredCount++;
+            } else {
+                Map<String, RemoteConfigState> groupInventory = inventory.get(buildInventoryKey(config));
+
+                if (groupInventory == null) {
+                    plan.add(SyncPlanItem.builder().config(config).build());
+                    unplannedCount++;
+                    continue;
+                }
+
+                remote = groupInventory.get(config.getDataId());
+                if (remote == null) {
+                    remote = RemoteConfigState.builder()
+                        .dataId(config.getDataId())
+                        .group(config.getGroup())
+                        .exists(false)
+                        .build();
+                }
+                // 本服务管理的配置(含尚未创建的)加入镜像, 之后由监听通知保持最新
+                if (mirrorEnabled) {
+                    remoteConfigMirror.watch(config.getNamespace(), remote);
+                }
+            }
+
+            SyncAction action = decide(config, remote);
+            actionCounts.merge(action, 1, Integer::sum);
+            plan.add(SyncPlanItem.builder().config(config).remote(remote).action(action).build());
+        }
+
+        log.info("同步计划生成完成 - {}, 来自镜像: {}, 未计划(执行时单独读取): {}", actionCounts, mirroredCount, unplannedCount);
+        return plan;
+    }
+
+    /**
+     * 根据本地配置与远程状态决定同步动作
+     *
+     * @param config 本地配置元数据
+     * @param remote 远程配置状态
+     * @return 同步动作
+     */
+    public SyncAction decide(ConfigMetadata config, RemoteConfigState remote) {
+        if (!remote.isExists()) {
+            return SyncAction.CREATE;
+        }
+        if (!configManagerProperties.isOverrideExisting()) {
+            return SyncAction.SKIP;
+        }
+        return isContentUnchanged(config, remote) ? SyncAction.UNCHANGED : SyncAction.UPDATE;
+    }
+
+    /**
+     * 判断本地配置内容与远程配置内容是否一致
+     *
+     * @param config 本地配置元数据
+     * @param remote 远程配置状态
+     * @return 是否未变更
+     */
+    private boolean isContentUnchanged(ConfigMetadata config, RemoteConfigState remote) {
+        String localMd5 = StringUtils.hasText(config.getContentMd5()) ?
+            config.getContentMd5() : DigestUtil.md5Hex(config.getContent());
+        String remoteMd5 = StringUtils.hasText(remote.getMd5()) ?
+            remote.getMd5() : DigestUtil.md5Hex(remote.getContent());
+        return localMd5.equalsIgnoreCase(remoteMd5);
+    }
+
+    /**
+     * 按命名空间与分组批量拉取远程配置清单, 只拉取包含未镜像配置的分组
+     *
+     * @param configList 本地配置列表
+     * @return 命名空间ID/分组 -> (dataId -> 远程配置状态), 拉取失败的分组不包含在结果中
+     */
+    private Map<String, Map<String, RemoteConfigState>> loadRemoteInventory(List<ConfigMetadata> configList) {
+        Set<String> keys = new LinkedHashSet<>();
+        boolean mirrorEnabled = remoteConfigMirror.isEnabled();
+        configList.stream()
+            .filter(config -> !mirrorEnabled ||
+                !remoteConfigMirror.contains(config.getNamespace(), config.getDataId(), config.getGroup()))
+            .forEach(config -> keys.add(buildInventoryKey(config)));
+
+        Map<String, Map<String, RemoteConfigState>> inventory = new HashMap<>();
+        for (String key : keys) {
+            String tenant = key.substring(0, key.indexOf('/'));
+            String group = key.substring(key.indexOf('/') + 1);
+            try {
+                Map<String, RemoteConfigState> groupInventory = new HashMap<>();
+                for (RemoteConfigState remote : nacosOpenApiClient.listConfigs(tenant, group)) {
+                    groupInventory.put(remote.getDataId(), remote);
+                }
+                inventory.put(key, groupInventory);
+            } catch (Exception e) {
+                log.warn("批量拉取远程配置失败，该分组回退为逐个读取: tenant={}, group={}, 错误: {}",
+                    tenant, group, e.getMessage());
+            }
+        }
+
+        return inventory;
+    }
+
+    /**
+     * 构建清单标识: Nacos命名空间ID/分组
+     */
+    private String buildInventoryKey(ConfigMetadata config) {
+        return nacosConfigServicePool.resolveNamespaceId(config.getNamespace()) + "/" + config.getGroup();
+    }
+}
@@ -1,17 +1,44 @@
 package io.github.fushuwei.nacos.service;
 
+import cn.hutool.crypto.digest.DigestUtil;
 import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ConfigContent;
+import io.github.fushuwei.nacos.entity.ConfigDiff;
+import io.github.fushuwei.nacos.entity.ConfigDrift;
 import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.PublishResult;
+import io.github.fushuwei.nacos.entity.RemoteConfigState;
+import io.github.fushuwei.nacos.entity.SyncJob;
+import io.github.fushuwei.nacos.entity.SyncAction;
+import io.github.fushuwei.nacos.entity.SyncPlanItem;
+import io.github.fushuwei.nacos.entity.SyncReport;
+import io.github.fushuwei.nacos.entity.TargetSyncReport;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * 配置同步服务类
@@ -29,100 +56,356 @@ public class ConfigSyncService {
     @Autowired
     private ConfigFileService configFileService;
 
+    @Autowired
+    private ConfigCatalogService configCatalogService;
+
+    @Autowired
+    private ConfigFingerprintCache configFingerprintCache;
+
     @Autowired
     private NacosConfigService nacosConfigService;
 
     @Autowired
     private ConfigBackupService configBackupService;
 
+    @Autowired
+    private NacosCallStatistics nacosCallStatistics;
+
+    @Autowired
+    private ConfigSyncPlanner configSyncPlanner;
+
+    @Autowired
+    private ConfigSemanticComparator configSemanticComparator;
+
+    @Autowired
+    private ConfigSyncMetrics configSyncMetrics;
+
+    @Autowired
+    private ConfigBulkImportService configBulkImportService;
+
+    @Autowired
+    private ConfigDriftDetector configDriftDetector;
+
+    @Autowired
+    private PublishOutbox publishOutbox;
+
+    @Autowired
+    private ClusterReplicationService clusterReplicationService;
+
+    @Autowired
+    @Qualifier("configSyncExecutor")
+    private ExecutorService configSyncExecutor;
+
     /**
-     * 应用启动完成后执行配置同步
+     * 配置锁(按 namespace + group + dataId): 同步与发件箱重放的比对发布、删除与恢复对同一配置串行执行,
+     * 不同配置互不阻塞; 没有持有者时移除
      */
-    @EventListener(ApplicationReadyEvent.class)
-    public void onApplicationReady() {
-        if (!configManagerProperties.isSyncEnabled()) {
-            log.info("配置同步已禁用，跳过启动时同步");
-            return;
-        }
+    private final Map<String, ConfigLock> configLocks = new ConcurrentHashMap<>();
 
-        ConfigManagerProperties.SyncMode syncMode = configManagerProperties.getSyncMode();
-
-        if (syncMode == ConfigManagerProperties.SyncMode.STARTUP ||
-            syncMode == ConfigManagerProperties.SyncMode.BOTH) {
-            log.info("应用启动完成，开始执行配置同步...");
-            syncAllConfigs();
-        }
+    /**
+     * 同步所有配置
+     *
+     * @return 同步结果报告
+     */
+    public SyncReport syncAllConfigs() {
+        return syncAllConfigs(null);
     }
 
     /**
-     * 定时同步配置
+     * 同步所有配置并更新任务进度
+     *
+     * @param job 同步任务, 为空时不记录进度
+     * @return 同步结果报告
      */
-    @Scheduled(fixedRateString = "#{${config.manager.sync-interval:30} * 60 * 1000}")
-    public void scheduledSync() {
-        if (!configManagerProperties.isSyncEnabled()) {
-            return;
+    public SyncReport syncAllConfigs(SyncJob job) {
+        log.info("==================== 开始配置同步 ====================");
+
+        // 扫描配置文件并重建配置目录
+        long scanStart = System.nanoTime();
+        List<ConfigMetadata> configList = configCatalogService.refresh();
+        configSyncMetrics.recordPhase(ConfigSyncMetrics.PHASE_SCAN, System.nanoTime() - scanStart);
+
+        if (configList.isEmpty()) {
+            log.warn("未发现任何配置文件，同步结束");
+            SyncReport report = new SyncReport();
+            report.setStartTime(System.currentTimeMillis());
+            return report;
         }
 
-        ConfigManagerProperties.SyncMode syncMode = configManagerProperties.getSyncMode();
+        SyncReport report = syncConfigs(configList, job);
+        if (report.isAborted()) {
+            log.warn("==================== 配置同步异常中止 ====================");
+            return report;
+        }
 
-        if (syncMode == ConfigManagerProperties.SyncMode.SCHEDULE ||
-            syncMode == ConfigManagerProperties.SyncMode.BOTH) {
-            log.info("开始执行定时配置同步...");
-            syncAllConfigs();
+        boolean cancelled = job != null && job.isCancelRequested();
+        if (!cancelled && report.getFailedCount() == 0) {
+            configSyncMetrics.markSuccess();
         }
+        log.info("==================== 配置同步完成 ====================");
+
+        // 同步完成后持久化文件指纹, 下次扫描跳过未变化的文件; 异常中止时不保存, 下次同步重新比对
+        configFingerprintCache.save(configList.stream().map(ConfigMetadata::getLocation).collect(Collectors.toList()));
+
+        return report;
     }
 
     /**
-     * 同步所有配置
+     * 同步指定的配置列表
+     *
+     * @param configList 配置元数据列表
+     * @return 同步结果报告
      */
-    public void syncAllConfigs() {
+    public SyncReport syncConfigs(List<ConfigMetadata> configList) {
+        return syncConfigs(configList, null);
+    }
+
+    /**
+     * 同步指定的配置列表并更新任务进度
+     * 任务被取消后, 尚未开始的配置不再同步, 已开始的配置同步完成后停止
+     *
+     * @param configList 配置元数据列表
+     * @param job 同步任务, 为空时不记录进度
+     * @return 同步结果报告
+     */
+    public SyncReport syncConfigs(List<ConfigMetadata> configList, SyncJob job) {
+        SyncReport report = new SyncReport();
+        report.setStartTime(System.currentTimeMillis());
+        long startNanos = System.nanoTime();
+
         try {
-            log.info("==================== 开始配置同步 ====================");
+            SyncCounter counter = new SyncCounter();
+            long remoteReadsBefore = nacosCallStatistics.getCalls("getConfig");
 
-            // 扫描配置文件
-            List<ConfigMetadata> configList = configFileService.scanConfigFiles();
+            // 复制目标集群与主集群并行同步, 各目标使用独立的发布队列
+            Map<String, CompletableFuture<TargetSyncReport>> replicas = clusterReplicationService.replicate(configList, job);
+
+            // 批量拉取远程配置, 在本地计算同步计划
+            List<SyncPlanItem> plan = configSyncPlanner.plan(configList);
+            if (job != null) {
+                job.setTotal(plan.size());
+            }
+
+            // 按 namespace + group + dataId 分组, 同一dataId的配置在同一任务内按文件路径顺序发布,
+            // 不同dataId之间并发同步, 并发度由同步线程池大小限制
+            Map<String, List<SyncPlanItem>> itemsByKey = plan.stream()
+                .sorted(Comparator.comparing((SyncPlanItem item) -> item.getConfig().getFilePath(),
+                    Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.groupingBy(item -> buildConfigKey(item.getConfig()), LinkedHashMap::new, Collectors.toList()));
+
+            // 首次初始化环境: 新建配置较多的命名空间通过ZIP一次导入, 未导入成功的配置继续逐个发布
+            if (configManagerProperties.isBulkImportEnabled()) {
+                bulkImport(itemsByKey, counter, job);
+            }
 
-            if (configList.isEmpty()) {
-                log.warn("未发现任何配置文件，同步结束");
+            List<Future<?>> futures = new ArrayList<>(itemsByKey.size());
+            for (List<SyncPlanItem> items : itemsByKey.values()) {
+                futures.add(configSyncExecutor.submit(() -> items.forEach(item -> syncAndCount(item, counter, job))));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long replicaDeadline = System.currentTimeMillis() + configManagerProperties.getNacos().getTargetWaitTimeout();
+            replicas.forEach((target, replica) ->
+                report.getTargets().add(awaitReplica(target, replica, replicaDeadline, configList.size())));
+
+            report.setTotal(configList.size());
+            report.setRemoteReadCount(nacosCallStatistics.getCalls("getConfig") - remoteReadsBefore);
+            counter.fillReport(report);
+
+            log.info("同步结果统计 - 变更发布: {}, 未变更: {}(其中语义等价: {}), 跳过: {}, 失败: {}, 总计: {}, 并发度: {}, 远程读取: {} 次",
+                report.getSuccessCount(), report.getUnchangedCount(), report.getEquivalentCount(), report.getSkippedCount(),
+                report.getFailedCount(), configList.size(), configManagerProperties.getSyncParallelism(),
+                report.getRemoteReadCount());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.setAborted(true);
+            log.error("配置同步被中断", e);
+        } catch (Exception e) {
+            report.setAborted(true);
+            log.error("配置同步过程异常", e);
+        } finally {
+            report.setDuration(System.currentTimeMillis() - report.getStartTime());
+            configSyncMetrics.recordPhase(ConfigSyncMetrics.PHASE_TOTAL, System.nanoTime() - startNanos);
+        }
+
+        return report;
+    }
+
+    /**
+     * 按命名空间批量导入新建配置
+     * 只有远程不存在且该dataId只有一个本地文件的配置参与导入, 新建数量达到阈值的命名空间才导入;
+     * 导入成功的配置从待同步列表中移除, 其余配置清除计划中的远程状态, 逐个发布时重新读取
+     *
+     * @param itemsByKey 配置标识 -> 同步计划项
+     * @param counter 结果计数器
+     * @param job 同步任务, 为空时不记录进度
+     */
+    private void bulkImport(Map<String, List<SyncPlanItem>> itemsByKey, SyncCounter counter, SyncJob job) {
+        Map<String, List<SyncPlanItem>> createsByNamespace = itemsByKey.values().stream()
+            .filter(items -> items.size() == 1 && items.get(0).getAction() == SyncAction.CREATE)
+            .map(items -> items.get(0))
+            .collect(Collectors.groupingBy(item -> String.valueOf(item.getConfig().getNamespace()),
+                LinkedHashMap::new, Collectors.toList()));
+
+        for (List<SyncPlanItem> creates : createsByNamespace.values()) {
+            if (creates.size() < configManagerProperties.getBulkImportThreshold()) {
+                continue;
+            }
+            if (job != null && job.isCancelRequested()) {
                 return;
             }
 
-            AtomicInteger successCount = new AtomicInteger(0);
-            AtomicInteger skipCount = new AtomicInteger(0);
-            AtomicInteger failCount = new AtomicInteger(0);
-
-            // 遍历同步配置
-            for (ConfigMetadata config : configList) {
-                try {
-                    SyncResult result = syncSingleConfig(config);
-
-                    switch (result) {
-                        case SUCCESS:
-                            successCount.incrementAndGet();
-                            break;
-                        case SKIPPED:
-                            skipCount.incrementAndGet();
-                            break;
-                        case FAILED:
-                            failCount.incrementAndGet();
-                            break;
-                    }
+            long importStart = System.nanoTime();
+            List<SyncPlanItem> imported = configBulkImportService.importConfigs(creates.get(0).getConfig().getNamespace(), creates);
+            configSyncMetrics.recordPhase(ConfigSyncMetrics.PHASE_IMPORT, System.nanoTime() - importStart);
 
-                } catch (Exception e) {
-                    log.error("同步配置异常: {}", config.getDataId(), e);
-                    failCount.incrementAndGet();
+            for (SyncPlanItem item : imported) {
+                itemsByKey.remove(buildConfigKey(item.getConfig()));
+                counter.record(SyncResult.SUCCESS);
+                configSyncMetrics.recordResult(item.getConfig().getNamespace(), SyncResult.SUCCESS.name().toLowerCase());
+                if (job != null) {
+                    job.markProcessed(item.getConfig().getDataId());
                 }
             }
 
-            log.info("==================== 配置同步完成 ====================");
-            log.info("同步结果统计 - 成功: {}, 跳过: {}, 失败: {}, 总计: {}",
-                successCount.get(), skipCount.get(), failCount.get(), configList.size());
+            creates.stream()
+                .filter(item -> itemsByKey.containsKey(buildConfigKey(item.getConfig())))
+                .forEach(item -> item.setRemote(null).setAction(null));
+        }
+    }
+
+    /**
+     * 删除本地已移除的配置对应的远程配置(删除前先备份)
+     *
+     * @param config 配置元数据
+     * @return 删除结果
+     */
+    public boolean removeConfig(ConfigMetadata config) {
+        return runLocked(config, () -> doRemoveConfig(config));
+    }
+
+    private boolean doRemoveConfig(ConfigMetadata config) {
+        String dataId = config.getDataId();
+        String group = config.getGroup();
+
+        RemoteConfigState remote = nacosConfigService.fetchRemoteConfig(config.getNamespace(), dataId, group);
+        if (remote.isFetchFailed()) {
+            log.warn("读取远程配置失败，跳过删除: dataId={}, group={}", dataId, group);
+            return false;
+        }
+        if (!remote.isExists()) {
+            return true;
+        }
+
+        if (!configBackupService.backupConfig(config, remote.getContent())) {
+            log.warn("配置备份失败，跳过删除: dataId={}, group={}", dataId, group);
+            return false;
+        }
+
+        boolean success = nacosConfigService.removeConfig(config.getNamespace(), dataId, group);
+        log.info("删除远程配置{}: dataId={}, group={}", success ? "成功" : "失败", dataId, group);
+        if (success) {
+            // 记录删除(不等待落盘), 按时间点恢复时据此判断配置当时不存在
+            configBackupService.recordDeleteAsync(config, remote.getContent());
+        }
 
+        return success;
+    }
+
+    /**
+     * 同步单个配置并记录结果
+     *
+     * @param item    同步计划项
+     * @param counter 结果计数器
+     * @param job     同步任务, 为空时不记录进度
+     */
+    private void syncAndCount(SyncPlanItem item, SyncCounter counter, SyncJob job) {
+        if (job != null && job.isCancelRequested()) {
+            return;
+        }
+
+        SyncResult result;
+        try {
+            result = syncSingleConfig(item);
+            if (item.getDiff() != null) {
+                counter.diffs.add(item.getDiff());
+            }
         } catch (Exception e) {
-            log.error("配置同步过程异常", e);
+            log.error("同步配置异常: {}", item.getConfig().getDataId(), e);
+            result = SyncResult.FAILED;
+        }
+
+        counter.record(result);
+        resolveDrift(item.getConfig(), result);
+        trackOutbox(item.getConfig(), result);
+        configSyncMetrics.recordResult(item.getConfig().getNamespace(), result.name().toLowerCase());
+        if (job != null) {
+            job.markProcessed(item.getConfig().getDataId());
         }
     }
 
+    /**
+     * 本地内容已发布或与远程一致时清除漂移记录
+     *
+     * @param config 配置元数据
+     * @param result 同步结果
+     */
+    private void resolveDrift(ConfigMetadata config, SyncResult result) {
+        if (result == SyncResult.SUCCESS || result == SyncResult.UNCHANGED || result == SyncResult.EQUIVALENT) {
+            ConfigDrift drift = configDriftDetector.resolve(config.getNamespace(), config.getGroup(), config.getDataId());
+            if (drift != null && result == SyncResult.SUCCESS) {
+                log.warn("远程配置的外部修改已被本地配置覆盖(覆盖前已备份): dataId={}, group={}",
+                    config.getDataId(), config.getGroup());
+            }
+        }
+    }
+
+    /**
+     * 同步失败的配置加入发布发件箱由后台重放, 其余结果移出发件箱
+     *
+     * @param config 配置元数据
+     * @param result 同步结果
+     */
+    private void trackOutbox(ConfigMetadata config, SyncResult result) {
+        if (result == SyncResult.FAILED) {
+            publishOutbox.enqueue(config);
+        } else {
+            publishOutbox.complete(config);
+        }
+    }
+
+    /**
+     * 重放发布发件箱中的配置(不扫描配置目录, 按记录的文件位置读取当前内容)
+     *
+     * @param config 配置元数据
+     * @return 是否已完成(发布成功、未变更或按规则跳过), 失败时由发件箱退避后重放
+     */
+    public boolean replayPublish(ConfigMetadata config) {
+        // 本地文件已删除时无需再发布(远程配置的删除由文件监听处理)
+        if (!configFileService.exists(config)) {
+            log.info("待重放配置的本地文件已不存在，移出发件箱: dataId={}, group={}", config.getDataId(), config.getGroup());
+            return true;
+        }
+
+        SyncResult result = syncSingleConfig(config);
+        resolveDrift(config, result);
+        configSyncMetrics.recordResult(config.getNamespace(), result.name().toLowerCase());
+        return result != SyncResult.FAILED;
+    }
+
+    /**
+     * 构建配置唯一标识
+     *
+     * @param config 配置元数据
+     * @return namespace + group + dataId
+     */
+    private String buildConfigKey(ConfigMetadata config) {
+        return config.getNamespace() + "/" + config.getGroup() + "/" + config.getDataId();
+    }
+
     /**
      * 同步单个配置
      *
@@ -130,33 +413,201 @@ public class ConfigSyncService {
      * @return 同步结果
      */
     private SyncResult syncSingleConfig(ConfigMetadata config) {
+        return syncSingleConfig(SyncPlanItem.builder().config(config).build());
+    }
+
+    /**
+     * 按同步计划项同步单个配置
+     *
+     * @param item 同步计划项
+     * @return 同步结果
+     */
+    private SyncResult syncSingleConfig(SyncPlanItem item) {
+        return syncSingleConfig(item, 0);
+    }
+
+    /**
+     * 在配置锁内执行操作, 与同一配置的比对发布、删除与恢复串行
+     *
+     * @param config 配置元数据(按 namespace + group + dataId 确定锁)
+     * @param operation 操作
+     * @return 操作结果
+     */
+    public <T> T runLocked(ConfigMetadata config, Supplier<T> operation) {
+        String key = buildConfigKey(config);
+        ConfigLock configLock = configLocks.compute(key, (k, existing) -> {
+            ConfigLock lock = existing != null ? existing : new ConfigLock();
+            lock.holders++;
+            return lock;
+        });
+
+        configLock.lock.lock();
+        try {
+            return operation.get();
+        } finally {
+            configLock.lock.unlock();
+            configLocks.computeIfPresent(key, (k, lock) -> --lock.holders == 0 ? null : lock);
+        }
+    }
+
+    /**
+     * 在配置锁内比对并发布: 以CAS发布时由Nacos比对远程MD5; 否则先确认远程状态与计划时一致, 不一致按冲突处理
+     * 读取、语义比对与备份等待都在锁外进行, 只有比对与发布互斥
+     *
+     * @param config 配置元数据
+     * @param action 同步动作
+     * @param remote 计划时的远程状态
+     * @param content 待发布内容
+     * @return 发布结果
+     */
+    private PublishResult publishLocked(ConfigMetadata config, SyncAction action, RemoteConfigState remote, String content) {
+        return runLocked(config, () -> {
+            PublishResult result;
+            if (action == SyncAction.UPDATE && configManagerProperties.isCasPublishEnabled()) {
+                String casMd5 = StringUtils.hasText(remote.getMd5()) ? remote.getMd5() : DigestUtil.md5Hex(remote.getContent());
+                result = nacosConfigService.publishConfigCas(config, content, casMd5);
+            } else {
+                RemoteConfigState current = nacosConfigService.fetchRemoteConfig(
+                    config.getNamespace(), config.getDataId(), config.getGroup());
+                if (current.isFetchFailed()) {
+                    return PublishResult.FAILED;
+                }
+                if (isRemoteChanged(remote, current)) {
+                    return PublishResult.CONFLICT;
+                }
+                result = nacosConfigService.publishConfig(config, content) ? PublishResult.SUCCESS : PublishResult.FAILED;
+            }
+
+            if (result == PublishResult.SUCCESS) {
+                // 记录发布内容(不等待落盘), 用于按时间点恢复
+                configBackupService.recordPublishAsync(config, content);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 远程状态在计划后是否变化(新建、删除或内容变更)
+     */
+    private boolean isRemoteChanged(RemoteConfigState planned, RemoteConfigState current) {
+        if (planned.isExists() != current.isExists()) {
+            return true;
+        }
+        return planned.isExists() && !md5Of(planned).equalsIgnoreCase(md5Of(current));
+    }
+
+    private String md5Of(RemoteConfigState state) {
+        return StringUtils.hasText(state.getMd5()) ? state.getMd5() : DigestUtil.md5Hex(state.getContent());
+    }
+
+    /**
+     * 按同步计划项同步单个配置
+     * 远程配置已存在时按计划中的远程内容MD5发布(CAS), 冲突时只重新读取该配置并重新计划
+     *
+     * @param item 同步计划项
+     * @param attempt 已重新计划次数
+     * @return 同步结果
+     */
+    private SyncResult syncSingleConfig(SyncPlanItem item, int attempt) {
+        ConfigMetadata config = item.getConfig();
         String dataId = config.getDataId();
         String group = config.getGroup();
         String namespace = config.getNamespace();
 
         log.debug("开始同步配置: dataId={}, group={}, namespace={}", dataId, group, namespace);
 
+        // 远程配置被外部修改且策略为保护时, 处理漂移前不覆盖
+        if (configDriftDetector.isProtected(config)) {
+            log.warn("远程配置存在未处理的外部修改，跳过同步: dataId={}, group={}", dataId, group);
+            return SyncResult.SKIPPED;
+        }
+
         try {
-            // 检查配置是否已存在
-            boolean exists = nacosConfigService.configExists(dataId, group);
+            // 计划中没有远程状态时单次读取, 存在性判断、变更比对与备份共用本次结果
+            RemoteConfigState remote = item.getRemote();
+            if (remote == null) {
+                long fetchStart = System.nanoTime();
+                remote = nacosConfigService.fetchRemoteConfig(namespace, dataId, group);
+                configSyncMetrics.recordPhase(ConfigSyncMetrics.PHASE_FETCH, System.nanoTime() - fetchStart);
+
+                if (remote.isFetchFailed()) {
+                    log.warn("读取远程配置失败，无法判断配置状态，跳过发布: dataId={}, group={}", dataId, group);
+                    return SyncResult.FAILED;
+                }
+            }
+
+            SyncAction action = item.getAction() != null ? item.getAction() : configSyncPlanner.decide(config, remote);
 
-            if (exists && !configManagerProperties.isOverrideExisting()) {
+            if (action == SyncAction.SKIP) {
                 log.info("配置已存在且不允许覆盖，跳过: dataId={}, group={}", dataId, group);
                 return SyncResult.SKIPPED;
             }
 
-            // 备份现有配置（如果存在且启用备份）
-            if (exists && configManagerProperties.isBackupEnabled()) {
-                String existingContent = nacosConfigService.getConfig(dataId, group, 5000);
-                if (StringUtils.hasText(existingContent)) {
-                    configBackupService.backupConfig(config, existingContent);
+            // 变更检测: 本地内容MD5与远程内容MD5一致时无需重新发布
+            if (action == SyncAction.UNCHANGED) {
+                log.debug("配置内容未变更，跳过发布: dataId={}, group={}", dataId, group);
+                return SyncResult.UNCHANGED;
+            }
+
+            String content;
+            CompletableFuture<Void> backupFuture;
+            long backupStart;
+
+            if (action == SyncAction.UPDATE && configSemanticComparator.supports(config.getType())) {
+                // 语义比对: 内容MD5不同但结构等价(仅空白、注释或键顺序变化)时无需发布
+                ConfigContent local = configFileService.loadContent(config);
+                content = local.getContent();
+                long diffStart = System.nanoTime();
+                ConfigDiff diff = configSemanticComparator.diff(config.getType(),
+                    content, local.getMd5(), remote.getContent(), remote.getMd5());
+                configSyncMetrics.recordPhase(ConfigSyncMetrics.PHASE_DIFF, System.nanoTime() - diffStart);
+
+                if (diff != null) {
+                    item.setDiff(diff.setDataId(dataId).setGroup(group));
+                    if (diff.isEquivalent()) {
+                        log.debug("配置结构未变更(仅格式差异)，跳过发布: dataId={}, group={}", dataId, group);
+                        return SyncResult.EQUIVALENT;
+                    }
+                    log.info("配置键级差异: dataId={}, 新增: {}, 删除: {}, 变更: {}",
+                        dataId, diff.getAddedKeys(), diff.getRemovedKeys(), diff.getChangedKeys());
                 }
+
+                backupStart = System.nanoTime();
+                backupFuture = configBackupService.backupConfigAsync(config, remote.getContent());
+            } else {
+                // 备份现有配置（如果存在且启用备份）, 备份写入与读取本地内容并行进行
+                backupStart = System.nanoTime();
+                backupFuture = action == SyncAction.UPDATE ?
+                    configBackupService.backupConfigAsync(config, remote.getContent()) :
+                    CompletableFuture.completedFuture(null);
+
+                content = configFileService.loadContent(config).getContent();
             }
 
-            // 发布配置到Nacos
-            boolean success = nacosConfigService.publishConfig(config);
+            // 备份持久化完成后才能发布
+            try {
+                backupFuture.get(configManagerProperties.getBackupTimeout(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                log.error("配置备份失败，取消发布: dataId={}, group={}", dataId, group, e.getCause());
+                return SyncResult.FAILED;
+            } catch (TimeoutException e) {
+                log.error("等待配置备份超时，取消发布: dataId={}, group={}", dataId, group);
+                return SyncResult.FAILED;
+            }
+            if (action == SyncAction.UPDATE) {
+                configSyncMetrics.recordPhase(ConfigSyncMetrics.PHASE_BACKUP, System.nanoTime() - backupStart);
+            }
 
-            if (success) {
+            // 发布配置到Nacos, 覆盖已有配置时以读取到的远程内容MD5作为CAS条件
+            long publishStart = System.nanoTime();
+            PublishResult publishResult = publishLocked(config, action, remote, content);
+            configSyncMetrics.recordPhase(ConfigSyncMetrics.PHASE_PUBLISH, System.nanoTime() - publishStart);
+
+            if (publishResult == PublishResult.CONFLICT) {
+                return replan(item, attempt);
+            }
+
+            if (publishResult == PublishResult.SUCCESS) {
                 log.info("配置同步成功: dataId={}, group={}", dataId, group);
                 return SyncResult.SUCCESS;
             } else {
@@ -164,6 +615,10 @@ public class ConfigSyncService {
                 return SyncResult.FAILED;
             }
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("同步配置被中断: dataId={}, group={}", dataId, group);
+            return SyncResult.FAILED;
         } catch (Exception e) {
             log.error("同步配置异常: dataId={}, group={}", dataId, group, e);
             return SyncResult.FAILED;
@@ -171,21 +626,41 @@ public class ConfigSyncService {
     }
 
     /**
-     * 手动触发配置同步
+     * 发布冲突后重新读取该配置的远程状态
+     * 重新读取会更新镜像并触发漂移检测; 默认不覆盖外部修改, 记录漂移并跳过本次同步(按漂移处理策略处理),
+     * 允许覆盖时按最新远程内容重新决策、备份与发布
      *
-     * @return 同步结果摘要
+     * @param item 同步计划项
+     * @param attempt 已重新计划次数
+     * @return 同步结果
      */
-    public String manualSync() {
-        log.info("收到手动同步请求");
+    private SyncResult replan(SyncPlanItem item, int attempt) {
+        ConfigMetadata config = item.getConfig();
+        if (attempt >= configManagerProperties.getCasMaxRetries()) {
+            log.warn("配置发布持续冲突，放弃本次同步: dataId={}, group={}, 重新计划次数: {}",
+                config.getDataId(), config.getGroup(), attempt);
+            return SyncResult.FAILED;
+        }
 
-        long startTime = System.currentTimeMillis();
-        syncAllConfigs();
-        long duration = System.currentTimeMillis() - startTime;
+        RemoteConfigState latest = nacosConfigService.refreshRemoteConfig(
+            config.getNamespace(), config.getDataId(), config.getGroup());
+        if (latest.isFetchFailed()) {
+            log.warn("发布冲突后重新读取远程配置失败: dataId={}, group={}", config.getDataId(), config.getGroup());
+            return SyncResult.FAILED;
+        }
 
-        String result = String.format("手动同步完成，耗时: %d ms", duration);
-        log.info(result);
+        if (!configManagerProperties.isCasConflictOverwrite()) {
+            if (configSyncPlanner.decide(config, latest) == SyncAction.UNCHANGED) {
+                return SyncResult.UNCHANGED;
+            }
+            configDriftDetector.detect(config.getNamespace(), latest);
+            log.warn("配置发布冲突(远程已被外部修改)，跳过本次同步: dataId={}, group={}", config.getDataId(), config.getGroup());
+            return SyncResult.SKIPPED;
+        }
 
-        return result;
+        log.info("配置发布冲突，按最新远程内容重新计划: dataId={}, group={}, 第 {} 次",
+            config.getDataId(), config.getGroup(), attempt + 1);
+        return syncSingleConfig(item.setRemote(latest).setAction(null).setDiff(null), attempt + 1);
     }
 
     /**
@@ -199,33 +674,136 @@ public class ConfigSyncService {
     public boolean syncSpecificConfig(String environment, String appName, String configName) {
         log.info("开始同步指定配置: env={}, app={}, config={}", environment, appName, configName);
 
-        List<ConfigMetadata> configList = configFileService.scanConfigFiles();
+        ConfigMetadata config = configCatalogService.find(environment, appName, configName);
+        if (config == null) {
+            log.warn("未找到指定的配置文件: env={}, app={}, config={}", environment, appName, configName);
+            return false;
+        }
 
-        for (ConfigMetadata config : configList) {
-            if (environment.equals(config.getEnvironment()) &&
-                appName.equals(config.getAppName()) &&
-                config.getDataId().contains(configName)) {
+        // 文件系统模式下重新读取该文件, 避免使用监听合并期间的旧内容
+        if (configFileService.isFileSystemSource()) {
+            try {
+                config = configFileService.parseConfigFile(configFileService.resolveConfigFile(config.getFilePath()));
+                configCatalogService.put(config);
+            } catch (IOException e) {
+                log.warn("读取配置文件失败: {}, 错误: {}", config.getFilePath(), e.getMessage());
+                return false;
+            }
+        }
 
-                SyncResult result = syncSingleConfig(config);
-                boolean success = result == SyncResult.SUCCESS;
+        Map<String, CompletableFuture<TargetSyncReport>> replicas =
+            clusterReplicationService.replicate(Collections.singletonList(config), null);
 
-                log.info("指定配置同步{}: dataId={}, group={}",
-                    success ? "成功" : "失败", config.getDataId(), config.getGroup());
+        SyncResult result = syncSingleConfig(config);
+        resolveDrift(config, result);
+        trackOutbox(config, result);
+        boolean success = result == SyncResult.SUCCESS || result == SyncResult.UNCHANGED
+            || result == SyncResult.EQUIVALENT;
 
-                return success;
-            }
+        long replicaDeadline = System.currentTimeMillis() + configManagerProperties.getNacos().getTargetWaitTimeout();
+        for (Map.Entry<String, CompletableFuture<TargetSyncReport>> entry : replicas.entrySet()) {
+            TargetSyncReport targetReport = awaitReplica(entry.getKey(), entry.getValue(), replicaDeadline, 1);
+            success = success && targetReport.getFailedCount() == 0;
+        }
+
+        log.info("指定配置同步{}: dataId={}, group={}",
+            success ? "成功" : "失败", config.getDataId(), config.getGroup());
+
+        return success;
+    }
+
+    /**
+     * 在截止时间前等待复制目标的同步结果, 超时的目标标记为滞后并在后台继续复制,
+     * 不阻塞协调任务、排队的同步与HTTP响应
+     *
+     * @param target 目标名称
+     * @param replica 目标同步结果
+     * @param deadline 截止时间(毫秒时间戳)
+     * @param total 配置总数
+     * @return 目标同步结果, 超时时返回滞后标记的结果
+     */
+    private TargetSyncReport awaitReplica(String target, CompletableFuture<TargetSyncReport> replica, long deadline, int total) {
+        try {
+            return replica.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("复制目标同步未在等待时间内完成，后台继续复制: 目标: {}", target);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("等待复制目标同步被中断: 目标: {}", target);
+        } catch (ExecutionException e) {
+            log.error("复制目标同步异常: 目标: {}", target, e.getCause());
+            TargetSyncReport failed = new TargetSyncReport();
+            failed.setTarget(target);
+            failed.setTotal(total);
+            failed.setFailedCount(total);
+            return failed;
         }
 
-        log.warn("未找到指定的配置文件: env={}, app={}, config={}", environment, appName, configName);
-        return false;
+        TargetSyncReport lagging = new TargetSyncReport();
+        lagging.setTarget(target);
+        lagging.setTotal(total);
+        lagging.setLagging(true);
+        return lagging;
     }
 
     /**
      * 同步结果枚举
      */
     private enum SyncResult {
-        SUCCESS,  // 同步成功
-        SKIPPED,  // 跳过同步
-        FAILED    // 同步失败
+        SUCCESS,    // 同步成功
+        UNCHANGED,  // 内容未变更
+        EQUIVALENT, // 结构等价(仅格式差异)
+        SKIPPED,    // 跳过同步
+        FAILED      // 同步失败
+    }
+
+    /**
+     * 单个配置的锁及其持有者(含等待者)数量, 数量只在 {@link ConcurrentHashMap#compute} 内修改
+     */
+    private static class ConfigLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int holders;
+    }
+
+    /**
+     * 同步结果计数器(线程安全)
+     */
+    private static class SyncCounter {
+        private final AtomicInteger successCount = new AtomicInteger(0);
+        private final AtomicInteger unchangedCount = new AtomicInteger(0);
+        private final AtomicInteger equivalentCount = new AtomicInteger(0);
+        private final AtomicInteger skipCount = new AtomicInteger(0);
+        private final AtomicInteger failCount = new AtomicInteger(0);
+        private final Queue<ConfigDiff> diffs = new ConcurrentLinkedQueue<>();
+
+        void record(SyncResult result) {
+            switch (result) {
+                case SUCCESS:
+                    successCount.incrementAndGet();
+                    break;
+                case UNCHANGED:
+                    unchangedCount.incrementAndGet();
+                    break;
+                case EQUIVALENT:
+                    unchangedCount.incrementAndGet();
+                    equivalentCount.incrementAndGet();
+                    break;
+                case SKIPPED:
+                    skipCount.incrementAndGet();
+                    break;
+                case FAILED:
+                    failCount.incrementAndGet();
+                    break;
+            }
+        }
+
+        void fillReport(SyncReport report) {
+            report.setSuccessCount(successCount.get());
+            report.setUnchangedCount(unchangedCount.get());
+            report.setEquivalentCount(equivalentCount.get());
+            report.setDiffs(new ArrayList<>(diffs));
+            report.setSkippedCount(skipCount.get());
+            report.setFailedCount(failCount.get());
+        }
     }
 }
@@ -0,0 +1,298 @@
+package io.github.fushuwei.nacos.service;
+
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.SyncScope;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 配置文件监听服务类(WATCH模式)
+ * 监听配置目录的新增、修改、删除事件, 合并短时间内的连续事件后只同步受影响的文件;
+ * 目录被删除或移走时, 配置目录中位于该目录下的文件按删除处理
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class ConfigWatchService {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private ConfigFileService configFileService;
+
+    @Autowired
+    private ConfigSyncCoordinator configSyncCoordinator;
+
+    @Autowired
+    private ConfigCatalogService configCatalogService;
+
+    /**
+     * WatchKey -> 监听的目录, 仅由监听线程访问
+     */
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    /**
+     * 待同步的文件, 仅由监听线程访问
+     */
+    private final Set<Path> pendingFiles = new LinkedHashSet<>();
+
+    private boolean overflow;
+
+    private WatchService watchService;
+
+    private Thread watchThread;
+
+    private volatile boolean running;
+
+    /**
+     * 应用启动完成后开始监听配置目录
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!configManagerProperties.isSyncEnabled() ||
+            configManagerProperties.getSyncMode() != ConfigManagerProperties.SyncMode.WATCH) {
+            return;
+        }
+
+        Path root = configFileService.getConfigRootDirectory();
+        if (!Files.isDirectory(root)) {
+            log.error("配置目录不存在，无法启动文件监听: {}", root);
+            return;
+        }
+
+        try {
+            watchService = root.getFileSystem().newWatchService();
+            registerRecursively(root, false);
+        } catch (IOException e) {
+            log.error("启动配置文件监听失败: {}", root, e);
+            return;
+        }
+
+        running = true;
+        watchThread = new Thread(this::watchLoop, "config-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+
+        log.info("配置文件监听已启动: {}, 监听目录数: {}", root, watchedDirectories.size());
+    }
+
+    /**
+     * 停止监听
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.warn("关闭配置文件监听失败: {}", e.getMessage());
+            }
+        }
+        if (watchThread != null) {
+            watchThread.interrupt();
+        }
+    }
+
+    /**
+     * 监听循环: 静默期内没有新事件或合并时间超过上限时, 同步已收集的变更
+     */
+    private void watchLoop() {
+        long debounceMillis = configManagerProperties.getWatchDebounceMillis();
+        long maxDelayMillis = configManagerProperties.getWatchMaxDelayMillis();
+        long firstEventTime = 0;
+
+        while (running) {
+            try {
+                WatchKey key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    do {
+                        collectEvents(key);
+                    } while ((key = watchService.poll()) != null);
+
+                    if (firstEventTime == 0) {
+                        firstEventTime = System.currentTimeMillis();
+                    }
+                    if (System.currentTimeMillis() - firstEventTime < maxDelayMillis) {
+                        continue;
+                    }
+                }
+
+                if (overflow || !pendingFiles.isEmpty()) {
+                    flush();
+                }
+                firstEventTime = 0;
+
+            } catch (ClosedWatchServiceException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("处理配置文件变更异常", e);
+            }
+        }
+
+        log.info("配置文件监听已停止");
+    }
+
+    /**
+     * 收集监听事件
+     *
+     * @param key WatchKey
+     */
+    private void collectEvents(WatchKey key) throws IOException {
+        Path directory = watchedDirectories.get(key);
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+
+            // 新建目录(如git checkout)需要注册监听, 并把目录下已有的文件视为新增
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE &&
+                Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                registerRecursively(path, true);
+                continue;
+            }
+
+            if (configFileService.isConfigFile(path)) {
+                pendingFiles.add(path);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                // 删除或移走目录(如git checkout、mv)只产生目录本身的删除事件, 目录下的文件按删除处理
+                collectCatalogFiles(path);
+            }
+        }
+
+        if (!key.reset()) {
+            Path removed = watchedDirectories.remove(key);
+            if (removed != null) {
+                collectCatalogFiles(removed);
+            }
+        }
+    }
+
+    /**
+     * 把配置目录中位于指定目录下的文件加入待同步列表, 同步时文件已不存在的按删除处理
+     *
+     * @param directory 目录
+     */
+    private void collectCatalogFiles(Path directory) {
+        for (ConfigMetadata config : configCatalogService.list()) {
+            Path file = configFileService.resolveConfigFile(config.getFilePath());
+            if (file.startsWith(directory)) {
+                pendingFiles.add(file);
+            }
+        }
+    }
+
+    /**
+     * 同步已收集的变更文件
+     */
+    private void flush() {
+        if (overflow) {
+            overflow = false;
+            pendingFiles.clear();
+            log.warn("文件事件溢出，执行全量同步");
+            configSyncCoordinator.trigger(SyncScope.fullScope(), false);
+            return;
+        }
+
+        List<ConfigMetadata> changedConfigs = new ArrayList<>();
+        List<Path> deletedFiles = new ArrayList<>();
+
+        // 以同步时的文件状态为准, 合并期间先建后删的文件按删除处理
+        for (Path file : pendingFiles) {
+            if (Files.isRegularFile(file)) {
+                try {
+                    ConfigMetadata config = configFileService.parseConfigFile(file);
+                    configCatalogService.put(config);
+                    changedConfigs.add(config);
+                } catch (IOException e) {
+                    log.warn("解析配置文件失败: {}, 错误: {}", file, e.getMessage());
+                }
+            } else {
+                configCatalogService.remove(file);
+                deletedFiles.add(file);
+            }
+        }
+        pendingFiles.clear();
+
+        log.info("检测到配置文件变更 - 新增/修改: {}, 删除: {}", changedConfigs.size(), deletedFiles.size());
+
+        if (!changedConfigs.isEmpty()) {
+            configSyncCoordinator.trigger(SyncScope.ofConfigs(changedConfigs), false);
+        }
+
+        for (Path file : deletedFiles) {
+            if (configManagerProperties.isWatchDeleteRemote()) {
+                configSyncCoordinator.removeConfig(configFileService.describeConfigFile(file));
+            } else {
+                log.info("本地配置文件已删除，保留远程配置: {}", file);
+            }
+        }
+    }
+
+    /**
+     * 递归注册目录监听
+     *
+     * @param start        起始目录
+     * @param collectFiles 是否把目录下已有的配置文件加入待同步列表
+     */
+    private void registerRecursively(Path start, boolean collectFiles) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+                watchedDirectories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (collectFiles && configFileService.isConfigFile(file)) {
+                    pendingFiles.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,252 @@
+package io.github.fushuwei.nacos.service;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nacos调用保护
+ * 自适应并发限制(AIMD): 调用成功且耗时正常时并发限制缓慢增加, 服务端错误、过载或耗时超过阈值时减半;
+ * 客户端错误(如鉴权失败、参数错误)说明服务端正常响应, 不影响并发限制与熔断;
+ * 可重试的错误按指数退避(带随机抖动)重试; 连续失败达到阈值后熔断, 熔断期间直接拒绝调用,
+ * 到期后放行一次探测调用, 成功则恢复; 主集群使用本组件, 复制目标集群各自创建独立实例
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class NacosCallGuard {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    private ConfigManagerProperties.CallGuardConfig guardConfig;
+
+    /**
+     * 当前并发限制
+     */
+    private double limit;
+
+    /**
+     * 正在进行的调用数
+     */
+    private int inFlight;
+
+    /**
+     * 连续失败次数
+     */
+    private int consecutiveFailures;
+
+    /**
+     * 熔断截止时间(毫秒), 0表示未熔断
+     */
+    private long openUntil;
+
+    /**
+     * 熔断到期后是否已放行探测调用
+     */
+    private boolean probing;
+
+    public NacosCallGuard() {
+    }
+
+    /**
+     * 创建独立的调用保护(如复制目标集群), 不依赖Spring注入
+     *
+     * @param guardConfig 调用保护配置
+     */
+    public NacosCallGuard(ConfigManagerProperties.CallGuardConfig guardConfig) {
+        this.guardConfig = guardConfig;
+        this.limit = Math.max(guardConfig.getMinLimit(), guardConfig.getInitialLimit());
+    }
+
+    @PostConstruct
+    public void init() {
+        guardConfig = configManagerProperties.getNacos().getGuard();
+        limit = Math.max(guardConfig.getMinLimit(), guardConfig.getInitialLimit());
+    }
+
+    /**
+     * 执行Nacos调用
+     *
+     * @param operation 操作名称
+     * @param call 调用
+     * @return 调用结果
+     * @throws NacosException 调用失败(重试后仍失败、熔断或等待许可超时)
+     */
+    public <T> T execute(String operation, NacosCall<T> call) throws NacosException {
+        if (!guardConfig.isEnabled()) {
+            return call.call();
+        }
+
+        int attempt = 0;
+        while (true) {
+            acquire(operation);
+
+            long startTime = System.nanoTime();
+            try {
+                T result = call.call();
+                onSuccess(System.nanoTime() - startTime);
+                return result;
+            } catch (NacosException e) {
+                if (!isRetryable(e)) {
+                    onRejected();
+                    throw e;
+                }
+                onFailure();
+                if (attempt >= guardConfig.getMaxRetries()) {
+                    throw e;
+                }
+                log.debug("Nacos调用失败，准备重试: {}, 第 {} 次, 错误: {}", operation, attempt + 1, e.getErrMsg());
+            } catch (RuntimeException e) {
+                onRejected();
+                throw e;
+            } finally {
+                release();
+            }
+
+            sleepBackoff(attempt++);
+        }
+    }
+
+    /**
+     * 获取调用保护状态快照
+     *
+     * @return 并发限制、进行中调用数、连续失败次数、熔断状态
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("limit", (int) limit);
+        result.put("inFlight", inFlight);
+        result.put("consecutiveFailures", consecutiveFailures);
+        result.put("circuitOpen", openUntil > System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * 获取调用许可: 熔断期间直接拒绝, 并发达到限制时等待
+     */
+    private synchronized void acquire(String operation) throws NacosException {
+        long deadline = System.currentTimeMillis() + guardConfig.getAcquireTimeoutMillis();
+        while (inFlight >= (int) limit) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new NacosException(NacosException.CLIENT_OVER_THRESHOLD, "等待Nacos调用许可超时: " + operation);
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NacosException(NacosException.CLIENT_OVER_THRESHOLD, "等待Nacos调用许可被中断: " + operation);
+            }
+        }
+
+        if (openUntil > 0) {
+            if (System.currentTimeMillis() < openUntil || probing) {
+                throw new NacosException(NacosException.CLIENT_OVER_THRESHOLD, "Nacos调用已熔断: " + operation);
+            }
+            // 熔断到期, 放行一次探测调用
+            probing = true;
+        }
+        inFlight++;
+    }
+
+    /**
+     * 释放调用许可
+     */
+    private synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * 调用成功: 耗时正常时加性增加并发限制, 超过阈值时乘性减少
+     */
+    private synchronized void onSuccess(long elapsedNanos) {
+        consecutiveFailures = 0;
+        if (openUntil > 0) {
+            log.info("Nacos调用探测成功，熔断恢复");
+            openUntil = 0;
+            probing = false;
+        }
+
+        if (TimeUnit.NANOSECONDS.toMillis(elapsedNanos) > guardConfig.getLatencyThresholdMillis()) {
+            decreaseLimit();
+        } else {
+            limit = Math.min(guardConfig.getMaxLimit(), limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * 调用失败: 乘性减少并发限制, 连续失败达到阈值时熔断
+     */
+    private synchronized void onFailure() {
+        decreaseLimit();
+        consecutiveFailures++;
+
+        if (probing || consecutiveFailures >= guardConfig.getBreakerFailureThreshold()) {
+            if (openUntil == 0 || probing) {
+                log.warn("Nacos调用连续失败 {} 次，熔断 {} ms", consecutiveFailures, guardConfig.getBreakerOpenMillis());
+            }
+            openUntil = System.currentTimeMillis() + guardConfig.getBreakerOpenMillis();
+            probing = false;
+        }
+    }
+
+    /**
+     * 调用被拒绝(客户端错误): 不调整并发限制与失败计数; 探测调用得到响应说明服务端已恢复
+     */
+    private synchronized void onRejected() {
+        if (probing) {
+            log.info("Nacos调用探测得到响应，熔断恢复");
+            consecutiveFailures = 0;
+            openUntil = 0;
+            probing = false;
+        }
+    }
+
+    private void decreaseLimit() {
+        limit = Math.max(guardConfig.getMinLimit(), limit / 2);
+    }
+
+    /**
+     * 是否可重试: 服务端错误、过载与连接断开, 只有这些错误计入失败
+     */
+    boolean isRetryable(NacosException e) {
+        int errCode = e.getErrCode();
+        return errCode >= NacosException.SERVER_ERROR
+            || errCode == NacosException.CLIENT_DISCONNECT
+            || errCode == NacosException.CLIENT_OVER_THRESHOLD;
+    }
+
+    /**
+     * 指数退避等待(完全随机抖动)
+     */
+    private void sleepBackoff(int attempt) throws NacosException {
+        long maxDelay = Math.min(guardConfig.getRetryMaxDelayMillis(),
+            guardConfig.getRetryBaseDelayMillis() << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NacosException(NacosException.CLIENT_OVER_THRESHOLD, "Nacos调用重试被中断");
+        }
+    }
+
+    /**
+     * Nacos调用
+     */
+    @FunctionalInterface
+    public interface NacosCall<T> {
+        T call() throws NacosException;
+    }
+}
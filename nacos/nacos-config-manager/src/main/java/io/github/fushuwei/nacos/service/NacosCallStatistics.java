@@ -0,0 +1,76 @@
+package io.github.fushuwei.nacos.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nacos远程调用统计
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Component
+public class NacosCallStatistics {
+
+    private final Map<String, CallStat> stats = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次远程调用
+     *
+     * @param operation    操作名称
+     * @param elapsedNanos 耗时(纳秒)
+     * @param success      是否成功
+     */
+    public void record(String operation, long elapsedNanos, boolean success) {
+        CallStat stat = stats.computeIfAbsent(operation, key -> new CallStat());
+        stat.calls.increment();
+        stat.totalNanos.add(elapsedNanos);
+        if (!success) {
+            stat.failures.increment();
+        }
+    }
+
+    /**
+     * 获取指定操作的调用次数
+     *
+     * @param operation 操作名称
+     * @return 调用次数
+     */
+    public long getCalls(String operation) {
+        CallStat stat = stats.get(operation);
+        return stat != null ? stat.calls.sum() : 0;
+    }
+
+    /**
+     * 获取统计快照
+     *
+     * @return 操作名称 -> 调用次数、失败次数、平均耗时
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        stats.forEach((operation, stat) -> {
+            long calls = stat.calls.sum();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("calls", calls);
+            item.put("failures", stat.failures.sum());
+            item.put("avgMillis", calls > 0 ? TimeUnit.NANOSECONDS.toMillis(stat.totalNanos.sum() / calls) : 0);
+            result.put(operation, item);
+        });
+        return result;
+    }
+
+    /**
+     * 单个操作的统计数据
+     */
+    private static class CallStat {
+        final LongAdder calls = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+    }
+}
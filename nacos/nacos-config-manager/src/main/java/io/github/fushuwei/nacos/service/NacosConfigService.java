@@ -1,16 +1,22 @@
 package io.github.fushuwei.nacos.service;
 
-import com.alibaba.nacos.api.config.ConfigService;
+import cn.hutool.crypto.digest.DigestUtil;
 import com.alibaba.nacos.api.config.ConfigType;
 import com.alibaba.nacos.api.exception.NacosException;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.config.NacosConfigServicePool;
 import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.PublishResult;
+import io.github.fushuwei.nacos.entity.RemoteConfigState;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 /**
- * Nacos配置服务类（使用Bean注入方式）
+ * Nacos配置服务类
+ * 按配置所属命名空间从ConfigService池中获取客户端, 配置发布到各自的命名空间;
+ * 全部ConfigService调用经由 {@link NacosCallGuard} 执行(自适应并发限制、重试与熔断)
  *
  * @author example
  * @version 1.0.0
@@ -20,7 +26,19 @@ import org.springframework.util.StringUtils;
 public class NacosConfigService {
 
     @Autowired
-    private ConfigService configService;
+    private NacosConfigServicePool nacosConfigServicePool;
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private NacosCallStatistics nacosCallStatistics;
+
+    @Autowired
+    private NacosCallGuard nacosCallGuard;
+
+    @Autowired
+    private RemoteConfigMirror remoteConfigMirror;
 
     /**
      * 发布配置
@@ -29,23 +47,43 @@ public class NacosConfigService {
      * @return 发布结果
      */
     public boolean publishConfig(ConfigMetadata configMetadata) {
+        return publishConfig(configMetadata, configMetadata.getContent());
+    }
+
+    /**
+     * 发布配置
+     *
+     * @param configMetadata 配置元数据
+     * @param content 配置内容
+     * @return 发布结果
+     */
+    public boolean publishConfig(ConfigMetadata configMetadata, String content) {
         try {
             String dataId = configMetadata.getDataId();
             String group = StringUtils.hasText(configMetadata.getGroup()) ?
                 configMetadata.getGroup() : "DEFAULT_GROUP";
-            String content = configMetadata.getContent();
 
             log.info("开始发布配置: dataId={}, group={}, namespace={}",
                 dataId, group, configMetadata.getNamespace());
 
-            boolean result = configService.publishConfig(dataId, group, content, getConfigType(configMetadata.getType()));
-
-            if (result) {
-                log.info("配置发布成功: dataId={}, group={}", dataId, group);
-            } else {
-                log.warn("配置发布失败: dataId={}, group={}", dataId, group);
+            long startTime = System.nanoTime();
+            boolean result = false;
+            try {
+                // 发布返回失败时按服务端错误处理, 由调用保护重试(发布是幂等的)
+                result = nacosCallGuard.execute("publishConfig", () -> {
+                    boolean published = nacosConfigServicePool.get(configMetadata.getNamespace())
+                        .publishConfig(dataId, group, content, getConfigType(configMetadata.getType()));
+                    if (!published) {
+                        throw new NacosException(NacosException.SERVER_ERROR, "发布配置返回失败: " + dataId);
+                    }
+                    return true;
+                });
+            } finally {
+                nacosCallStatistics.record("publishConfig", System.nanoTime() - startTime, result);
             }
 
+            remoteConfigMirror.update(configMetadata.getNamespace(), dataId, group, content);
+            log.info("配置发布成功: dataId={}, group={}", dataId, group);
             return result;
         } catch (NacosException e) {
             log.error("发布配置异常: dataId={}, group={}",
@@ -54,49 +92,229 @@ public class NacosConfigService {
         }
     }
 
+    /**
+     * 按读取时的远程内容MD5发布配置(CAS), 远程配置在读取后被修改时不覆盖
+     * 未提供MD5(远程配置不存在)时按普通发布处理
+     *
+     * @param configMetadata 配置元数据
+     * @param content 配置内容
+     * @param casMd5 读取时的远程内容MD5
+     * @return 发布结果
+     */
+    public PublishResult publishConfigCas(ConfigMetadata configMetadata, String content, String casMd5) {
+        if (!StringUtils.hasText(casMd5)) {
+            return publishConfig(configMetadata, content) ? PublishResult.SUCCESS : PublishResult.FAILED;
+        }
+
+        String dataId = configMetadata.getDataId();
+        String group = StringUtils.hasText(configMetadata.getGroup()) ?
+            configMetadata.getGroup() : "DEFAULT_GROUP";
+
+        log.info("开始发布配置(CAS): dataId={}, group={}, namespace={}", dataId, group, configMetadata.getNamespace());
+
+        long startTime = System.nanoTime();
+        boolean success = false;
+        try {
+            // CAS发布返回失败不重试: 远程MD5已变化时由调用方重新读取后重新计划, 否则按发布失败处理
+            boolean published = nacosCallGuard.execute("publishConfigCas", () ->
+                nacosConfigServicePool.get(configMetadata.getNamespace())
+                    .publishConfigCas(dataId, group, content, casMd5, getConfigType(configMetadata.getType())));
+            success = true;
+
+            if (!published) {
+                if (isRemoteChanged(configMetadata.getNamespace(), dataId, group, casMd5)) {
+                    log.warn("配置发布冲突, 远程配置已被修改: dataId={}, group={}", dataId, group);
+                    return PublishResult.CONFLICT;
+                }
+                log.warn("配置发布被拒绝(远程配置未被修改): dataId={}, group={}", dataId, group);
+                return PublishResult.FAILED;
+            }
+
+            remoteConfigMirror.update(configMetadata.getNamespace(), dataId, group, content);
+            log.info("配置发布成功: dataId={}, group={}", dataId, group);
+            return PublishResult.SUCCESS;
+        } catch (NacosException e) {
+            log.error("发布配置异常: dataId={}, group={}", dataId, group, e);
+            return PublishResult.FAILED;
+        } finally {
+            nacosCallStatistics.record("publishConfigCas", System.nanoTime() - startTime, success);
+        }
+    }
+
+    /**
+     * CAS发布返回失败后重新读取远程配置, 判断是否因远程内容已变化而冲突
+     * Nacos对MD5不匹配与其他原因(如鉴权、内容校验)的拒绝都返回false, 需要据此区分
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @param casMd5 发布时使用的远程内容MD5
+     * @return 远程内容是否已变化, 读取失败时返回false(按发布失败处理)
+     */
+    private boolean isRemoteChanged(String namespace, String dataId, String group, String casMd5) {
+        long startTime = System.nanoTime();
+        boolean success = false;
+        try {
+            String current = nacosCallGuard.execute("getConfig", () ->
+                nacosConfigServicePool.get(namespace).getConfig(dataId, group, configManagerProperties.getNacos().getTimeout()));
+            success = true;
+            return !StringUtils.hasText(current) || !casMd5.equalsIgnoreCase(DigestUtil.md5Hex(current));
+        } catch (NacosException e) {
+            log.warn("发布失败后读取远程配置失败: dataId={}, group={}, 错误: {}", dataId, group, e.getErrMsg());
+            return false;
+        } finally {
+            nacosCallStatistics.record("getConfig", System.nanoTime() - startTime, success);
+        }
+    }
+
     /**
      * 获取配置
      *
+     * @param namespace 命名空间
      * @param dataId 数据ID
      * @param group 分组
-     * @param timeoutMs 超时时间
      * @return 配置内容
      */
-    public String getConfig(String dataId, String group, long timeoutMs) {
+    public String getConfig(String namespace, String dataId, String group) {
         try {
-            return configService.getConfig(dataId, group, timeoutMs);
+            return doGetConfig(namespace, dataId, group, configManagerProperties.getNacos().getTimeout(), false);
         } catch (NacosException e) {
             log.error("获取配置异常: dataId={}, group={}", dataId, group, e);
             return null;
         }
     }
 
+    /**
+     * 读取远程配置状态
+     * 只访问一次Nacos, 存在性判断、备份与变更比对均基于本次读取结果
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @return 远程配置状态
+     */
+    public RemoteConfigState fetchRemoteConfig(String namespace, String dataId, String group) {
+        return readRemoteConfig(namespace, dataId, group, false);
+    }
+
+    /**
+     * 绕过镜像从Nacos重新读取远程配置状态(如发布冲突后), 读取结果更新到镜像
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @return 远程配置状态
+     */
+    public RemoteConfigState refreshRemoteConfig(String namespace, String dataId, String group) {
+        return readRemoteConfig(namespace, dataId, group, true);
+    }
+
+    /**
+     * 读取远程配置状态
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @param refresh 是否绕过镜像
+     * @return 远程配置状态
+     */
+    private RemoteConfigState readRemoteConfig(String namespace, String dataId, String group, boolean refresh) {
+        RemoteConfigState.RemoteConfigStateBuilder builder = RemoteConfigState.builder()
+            .dataId(dataId)
+            .group(group);
+
+        try {
+            String content = doGetConfig(namespace, dataId, group, configManagerProperties.getNacos().getTimeout(), refresh);
+            boolean exists = StringUtils.hasText(content);
+
+            return builder
+                .content(content)
+                .md5(exists ? DigestUtil.md5Hex(content) : null)
+                .exists(exists)
+                .build();
+        } catch (NacosException e) {
+            log.error("读取远程配置异常: dataId={}, group={}", dataId, group, e);
+            return builder.fetchFailed(true).build();
+        }
+    }
+
+    /**
+     * 读取配置: 已镜像时直接返回镜像内容, 否则调用Nacos读取(启用镜像时同时注册监听器)并记录调用统计
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @param timeoutMs 超时时间
+     * @param refresh 是否绕过镜像重新读取(读取结果更新到镜像)
+     * @return 配置内容
+     * @throws NacosException Nacos异常
+     */
+    private String doGetConfig(String namespace, String dataId, String group, long timeoutMs, boolean refresh) throws NacosException {
+        boolean mirrorEnabled = remoteConfigMirror.isEnabled();
+        if (mirrorEnabled && !refresh) {
+            RemoteConfigState mirrored = remoteConfigMirror.get(namespace, dataId, group);
+            if (mirrored != null) {
+                return mirrored.getContent();
+            }
+        }
+
+        // 未镜像时读取并注册监听器, 已镜像(重新读取)时直接读取后更新镜像
+        boolean load = mirrorEnabled && !remoteConfigMirror.contains(namespace, dataId, group);
+        long startTime = System.nanoTime();
+        boolean success = false;
+        try {
+            String content = nacosCallGuard.execute("getConfig", () -> load ?
+                remoteConfigMirror.load(namespace, dataId, group, timeoutMs) :
+                nacosConfigServicePool.get(namespace).getConfig(dataId, group, timeoutMs));
+            success = true;
+            if (mirrorEnabled && !load) {
+                remoteConfigMirror.refresh(namespace, dataId, group, content);
+            }
+            return content;
+        } finally {
+            nacosCallStatistics.record("getConfig", System.nanoTime() - startTime, success);
+        }
+    }
+
     /**
      * 删除配置
      *
+     * @param namespace 命名空间
      * @param dataId 数据ID
      * @param group 分组
      * @return 删除结果
      */
-    public boolean removeConfig(String dataId, String group) {
+    public boolean removeConfig(String namespace, String dataId, String group) {
+        long startTime = System.nanoTime();
+        boolean result = false;
         try {
-            return configService.removeConfig(dataId, group);
+            result = nacosCallGuard.execute("removeConfig", () -> {
+                boolean removed = nacosConfigServicePool.get(namespace).removeConfig(dataId, group);
+                if (!removed) {
+                    throw new NacosException(NacosException.SERVER_ERROR, "删除配置返回失败: " + dataId);
+                }
+                return true;
+            });
+            remoteConfigMirror.update(namespace, dataId, group, null);
+            return result;
         } catch (NacosException e) {
             log.error("删除配置异常: dataId={}, group={}", dataId, group, e);
             return false;
+        } finally {
+            nacosCallStatistics.record("removeConfig", System.nanoTime() - startTime, result);
         }
     }
 
     /**
      * 检查配置是否存在
      *
+     * @param namespace 命名空间
      * @param dataId 数据ID
      * @param group 分组
      * @return 是否存在
      */
-    public boolean configExists(String dataId, String group) {
-        String content = getConfig(dataId, group, 3000);
-        return StringUtils.hasText(content);
+    public boolean configExists(String namespace, String dataId, String group) {
+        return fetchRemoteConfig(namespace, dataId, group).isExists();
     }
 
     /**
@@ -105,7 +323,7 @@ public class NacosConfigService {
      * @param type 文件类型
      * @return ConfigType
      */
-    private String getConfigType(String type) {
+    public String getConfigType(String type) {
         if (!StringUtils.hasText(type)) {
             return ConfigType.YAML.getType();
         }
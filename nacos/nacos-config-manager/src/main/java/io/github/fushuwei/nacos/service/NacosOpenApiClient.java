@@ -0,0 +1,308 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.core.io.IORuntimeException;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
+import cn.hutool.http.HttpUtil;
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.alibaba.nacos.api.exception.NacosException;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ImportResult;
+import io.github.fushuwei.nacos.entity.RemoteConfigState;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Nacos Open API 客户端
+ * 用于SDK未提供的批量接口(分页查询配置列表、ZIP批量导入等);
+ * 依次尝试配置的各个服务端地址, 连接失败时切换到下一个地址, 之后优先使用最近一次连通的地址;
+ * 调用经由独立的 {@link NacosCallGuard} 执行(重试与熔断), 批量接口耗时较长, 不影响SDK调用的并发限制
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class NacosOpenApiClient {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private NacosCallStatistics nacosCallStatistics;
+
+    private NacosCallGuard guard;
+
+    /**
+     * 服务端地址列表(含协议与上下文路径)
+     */
+    private List<String> serverUrls;
+
+    /**
+     * 优先使用的服务端地址下标(最近一次连通的地址)
+     */
+    private volatile int preferredServer;
+
+    private volatile String accessToken;
+
+    private volatile long tokenExpireTime;
+
+    @PostConstruct
+    public void init() {
+        ConfigManagerProperties.NacosConfig nacos = configManagerProperties.getNacos();
+        guard = new NacosCallGuard(nacos.getGuard());
+
+        serverUrls = new ArrayList<>();
+        for (String addr : nacos.getServerAddr().split(",")) {
+            String serverAddr = addr.trim();
+            if (serverAddr.isEmpty()) {
+                continue;
+            }
+            if (!serverAddr.startsWith("http://") && !serverAddr.startsWith("https://")) {
+                serverAddr = "http://" + serverAddr;
+            }
+            serverUrls.add(serverAddr + nacos.getContextPath());
+        }
+        if (serverUrls.isEmpty()) {
+            throw new IllegalStateException("未配置Nacos服务端地址");
+        }
+        // 起始地址随机, 多个实例的请求分散到不同节点
+        preferredServer = ThreadLocalRandom.current().nextInt(serverUrls.size());
+    }
+
+    /**
+     * 获取调用保护状态快照
+     *
+     * @return 并发限制、进行中调用数、连续失败次数、熔断状态
+     */
+    public Map<String, Object> guardSnapshot() {
+        return guard.snapshot();
+    }
+
+    /**
+     * 分页拉取指定命名空间、分组下的全部配置(含内容与MD5)
+     *
+     * @param tenant 命名空间ID, 空字符串表示public
+     * @param group 分组
+     * @return 远程配置列表
+     * @throws NacosException 调用失败(全部地址连接失败、服务端错误或熔断)
+     */
+    public List<RemoteConfigState> listConfigs(String tenant, String group) throws NacosException {
+        ConfigManagerProperties.NacosConfig nacos = configManagerProperties.getNacos();
+        List<RemoteConfigState> configs = new ArrayList<>();
+
+        int pageNo = 1;
+        int pagesAvailable;
+        do {
+            Map<String, Object> params = new HashMap<>();
+            params.put("search", "accurate");
+            params.put("dataId", "");
+            params.put("group", group);
+            params.put("tenant", tenant != null ? tenant : "");
+            params.put("pageNo", pageNo);
+            params.put("pageSize", nacos.getListPageSize());
+            putAccessToken(params);
+
+            JSONObject page = JSONUtil.parseObj(execute("listConfigs",
+                serverUrl -> HttpRequest.get(serverUrl + "/v1/cs/configs").form(params)));
+            pagesAvailable = page.getInt("pagesAvailable", 0);
+
+            JSONArray pageItems = page.getJSONArray("pageItems");
+            if (pageItems != null) {
+                for (int i = 0; i < pageItems.size(); i++) {
+                    JSONObject item = pageItems.getJSONObject(i);
+                    configs.add(RemoteConfigState.builder()
+                        .dataId(item.getStr("dataId"))
+                        .group(item.getStr("group"))
+                        .content(item.getStr("content"))
+                        .md5(item.getStr("md5"))
+                        .exists(true)
+                        .build());
+                }
+            }
+
+            pageNo++;
+        } while (pageNo <= pagesAvailable);
+
+        log.debug("批量拉取远程配置完成: tenant={}, group={}, 数量={}", tenant, group, configs.size());
+        return configs;
+    }
+
+    /**
+     * 通过ZIP包批量导入配置(Nacos导入格式: 根目录 .metadata.yml 描述元数据, group/dataId 为配置内容)
+     * 已存在的配置跳过, 不覆盖
+     *
+     * @param tenant 命名空间ID, 空字符串表示public
+     * @param zipBytes ZIP包内容
+     * @param fileName ZIP文件名
+     * @return 导入结果
+     * @throws NacosException 调用失败(全部地址连接失败、服务端错误或熔断)
+     */
+    public ImportResult importConfigs(String tenant, byte[] zipBytes, String fileName) throws NacosException {
+        // import、namespace、policy需作为URL参数, Nacos按URL参数匹配导入接口
+        Map<String, Object> params = new HashMap<>();
+        params.put("import", "true");
+        params.put("namespace", tenant != null ? tenant : "");
+        params.put("policy", "SKIP");
+        putAccessToken(params);
+
+        // 策略为SKIP, 重试或切换地址重复导入时已导入的配置只会被跳过
+        JSONObject body = JSONUtil.parseObj(execute("importConfigs",
+            serverUrl -> HttpRequest.post(HttpUtil.urlWithForm(serverUrl + "/v1/cs/configs", params, StandardCharsets.UTF_8, true))
+                .form("file", zipBytes, fileName),
+            configManagerProperties.getBulkImportTimeout()));
+        if (body.getInt("code", 0) != 200) {
+            throw new IllegalStateException("Nacos批量导入失败: " + body.getStr("message"));
+        }
+
+        JSONObject data = body.getJSONObject("data");
+        ImportResult result = new ImportResult();
+        if (data != null) {
+            result.setSuccessCount(data.getInt("succCount", 0));
+            result.setSkipCount(data.getInt("skipCount", 0));
+            collectKeys(data.getJSONArray("failData"), result.getFailedKeys());
+            collectKeys(data.getJSONArray("skipData"), result.getSkippedKeys());
+            result.setUnrecognizedCount(data.getInt("unrecognizedCount", 0));
+            collectKeys(data.getJSONArray("unrecognizedData"), result.getUnrecognizedKeys());
+        }
+
+        log.debug("批量导入配置完成: tenant={}, 成功={}, 跳过={}, 失败={}, 无法识别={}", tenant, result.getSuccessCount(),
+            result.getSkipCount(), result.getFailedKeys().size(), result.getUnrecognizedCount());
+        return result;
+    }
+
+    /**
+     * 收集导入结果中的配置标识
+     * 无法识别的导入项没有dataId、group, 以ZIP条目名(group/dataId)标识
+     *
+     * @param items 导入结果项(dataId、group 或 itemName)
+     * @param keys 配置标识集合(group/dataId)
+     */
+    private void collectKeys(JSONArray items, Set<String> keys) {
+        if (items == null) {
+            return;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            JSONObject item = items.getJSONObject(i);
+            String itemName = item.getStr("itemName");
+            keys.add(StringUtils.hasText(itemName) ? itemName : item.getStr("group") + "/" + item.getStr("dataId"));
+        }
+    }
+
+    /**
+     * 添加访问令牌参数(Nacos开启鉴权时)
+     *
+     * @param params 请求参数
+     */
+    private void putAccessToken(Map<String, Object> params) throws NacosException {
+        String token = getAccessToken();
+        if (StringUtils.hasText(token)) {
+            params.put("accessToken", token);
+        }
+    }
+
+    /**
+     * 获取访问令牌, 过期前复用
+     *
+     * @return 访问令牌, 未配置用户名时返回null
+     */
+    private synchronized String getAccessToken() throws NacosException {
+        ConfigManagerProperties.NacosConfig nacos = configManagerProperties.getNacos();
+        if (!StringUtils.hasText(nacos.getUsername())) {
+            return null;
+        }
+
+        if (accessToken != null && System.currentTimeMillis() < tokenExpireTime) {
+            return accessToken;
+        }
+
+        JSONObject result = JSONUtil.parseObj(execute("login", serverUrl -> HttpRequest.post(serverUrl + "/v1/auth/login")
+            .form("username", nacos.getUsername())
+            .form("password", nacos.getPassword())));
+
+        accessToken = result.getStr("accessToken");
+        // 提前一分钟刷新令牌
+        long ttlSeconds = result.getLong("tokenTtl", 18000L);
+        tokenExpireTime = System.currentTimeMillis() + Math.max(0, ttlSeconds - 60) * 1000;
+
+        return accessToken;
+    }
+
+    /**
+     * 经调用保护执行HTTP请求
+     *
+     * @param operation 操作名称
+     * @param requestBuilder 按服务端地址构建HTTP请求
+     * @return 响应体
+     */
+    private String execute(String operation, Function<String, HttpRequest> requestBuilder) throws NacosException {
+        return execute(operation, requestBuilder, configManagerProperties.getNacos().getTimeout());
+    }
+
+    /**
+     * 经调用保护执行HTTP请求
+     *
+     * @param operation 操作名称
+     * @param requestBuilder 按服务端地址构建HTTP请求
+     * @param timeout 超时时间(毫秒)
+     * @return 响应体
+     */
+    private String execute(String operation, Function<String, HttpRequest> requestBuilder, int timeout) throws NacosException {
+        return guard.execute(operation, () -> executeWithFailover(operation, requestBuilder, timeout));
+    }
+
+    /**
+     * 从优先地址开始依次尝试各服务端地址, 连接失败时切换到下一个地址, 并记录调用统计
+     * 服务端已响应(含错误状态码)时不再切换, 服务端错误与过载由调用保护按可重试错误处理
+     *
+     * @param operation 操作名称
+     * @param requestBuilder 按服务端地址构建HTTP请求
+     * @param timeout 超时时间(毫秒)
+     * @return 响应体
+     */
+    private String executeWithFailover(String operation, Function<String, HttpRequest> requestBuilder, int timeout)
+        throws NacosException {
+        int start = preferredServer;
+        IORuntimeException lastError = null;
+
+        for (int i = 0; i < serverUrls.size(); i++) {
+            int index = (start + i) % serverUrls.size();
+            String serverUrl = serverUrls.get(index);
+
+            long startTime = System.nanoTime();
+            boolean success = false;
+            try (HttpResponse response = requestBuilder.apply(serverUrl).timeout(timeout).execute()) {
+                preferredServer = index;
+                if (!response.isOk()) {
+                    int errCode = response.getStatus() == 429 ? NacosException.OVER_THRESHOLD : response.getStatus();
+                    throw new NacosException(errCode, String.format("Nacos Open API 调用失败: %s, status=%d, body=%s",
+                        operation, response.getStatus(), response.body()));
+                }
+                success = true;
+                return response.body();
+            } catch (IORuntimeException e) {
+                lastError = e;
+                log.warn("Nacos Open API 连接失败: {}, 地址: {}, 错误: {}", operation, serverUrl, e.getMessage());
+            } finally {
+                nacosCallStatistics.record(operation, System.nanoTime() - startTime, success);
+            }
+        }
+
+        throw new NacosException(NacosException.CLIENT_DISCONNECT,
+            "Nacos Open API 全部地址连接失败: " + operation + ", 错误: " + lastError.getMessage());
+    }
+}
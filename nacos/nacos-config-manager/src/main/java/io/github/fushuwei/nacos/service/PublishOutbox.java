@@ -0,0 +1,321 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.json.JSONUtil;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.OutboxEntry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 发布发件箱
+ * 发布失败的配置追加写入发件箱文件(只追加, 写入后刷盘), 由 {@link PublishOutboxReplayer} 按退避时间重放,
+ * 重启后从文件恢复; 发件箱只记录配置元数据, 重放时按文件位置读取当前内容
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class PublishOutbox {
+
+    /**
+     * 发件箱文件名(位于备份目录下)
+     */
+    private static final String OUTBOX_FILE_NAME = "outbox.log";
+
+    /**
+     * 记录类型: 加入发件箱
+     */
+    private static final String OP_ENQUEUE = "E";
+
+    /**
+     * 记录类型: 已完成
+     */
+    private static final String OP_DONE = "D";
+
+    /**
+     * 文件记录数超过待发布数量的倍数(且超过最小值)时压缩
+     */
+    private static final int COMPACT_MIN_LINES = 1024;
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    /**
+     * 配置标识 -> 待发布项(按加入顺序)
+     */
+    private final Map<String, OutboxEntry> pending = new LinkedHashMap<>();
+
+    /**
+     * 发件箱文件当前记录数
+     */
+    private int logLines;
+
+    /**
+     * 启动时未能完整读取发件箱文件, 内存中的待发布项不完整, 不再压缩(压缩会丢弃未读取的记录)
+     */
+    private boolean loadFailed;
+
+    /**
+     * 启动时从发件箱文件恢复待发布项
+     */
+    @PostConstruct
+    public synchronized void load() {
+        if (!configManagerProperties.isOutboxEnabled()) {
+            return;
+        }
+
+        Path outboxFile = getOutboxFile();
+        if (!Files.isRegularFile(outboxFile)) {
+            return;
+        }
+
+        int lines = 0;
+        int malformed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(outboxFile, StandardCharsets.UTF_8)) {
+            long now = System.currentTimeMillis();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                // 单条记录损坏(如写入中断的最后一行)只跳过该记录, 继续读取其余记录
+                try {
+                    String[] parts = line.split("\t", 4);
+                    if (OP_ENQUEUE.equals(parts[0]) && parts.length == 4) {
+                        pending.put(parts[1], OutboxEntry.builder()
+                            .key(parts[1])
+                            .enqueueTime(Long.parseLong(parts[2]))
+                            .config(JSONUtil.toBean(parts[3], ConfigMetadata.class))
+                            .nextAttemptTime(now)
+                            .build());
+                    } else if (OP_DONE.equals(parts[0]) && parts.length >= 2) {
+                        pending.remove(parts[1]);
+                    } else if (!line.isEmpty()) {
+                        throw new IllegalArgumentException("无法识别的记录");
+                    }
+                } catch (RuntimeException e) {
+                    malformed++;
+                    log.warn("发布发件箱第 {} 行记录无法解析，已跳过: {}, 错误: {}", lines, line, e.getMessage());
+                }
+            }
+            log.info("加载发布发件箱成功, 待发布 {} 个配置, 跳过无法解析的记录 {} 条: {}", pending.size(), malformed, outboxFile);
+        } catch (IOException e) {
+            // 读取失败时保留原文件, 不压缩, 新记录继续追加
+            loadFailed = true;
+            logLines = lines;
+            log.error("加载发布发件箱失败，本次运行不压缩发件箱文件: {}, 已读取 {} 行, 错误: {}", outboxFile, lines, e.getMessage());
+            return;
+        }
+
+        compact();
+    }
+
+    /**
+     * 发布失败的配置加入发件箱, 已在发件箱中时保持原有退避进度
+     *
+     * @param config 配置元数据
+     */
+    public synchronized void enqueue(ConfigMetadata config) {
+        if (!configManagerProperties.isOutboxEnabled()) {
+            return;
+        }
+
+        String key = buildKey(config);
+        OutboxEntry existing = pending.get(key);
+        if (existing != null) {
+            existing.setConfig(copyMetadata(config));
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        OutboxEntry entry = OutboxEntry.builder()
+            .key(key)
+            .config(copyMetadata(config))
+            .enqueueTime(now)
+            .nextAttemptTime(now + computeBackoff(0))
+            .build();
+
+        try {
+            append(OP_ENQUEUE + "\t" + key + "\t" + now + "\t" + JSONUtil.toJsonStr(entry.getConfig()), true);
+            pending.put(key, entry);
+            log.info("发布失败的配置已加入发件箱: dataId={}, group={}", config.getDataId(), config.getGroup());
+        } catch (IOException e) {
+            log.error("写入发布发件箱失败: dataId={}, group={}", config.getDataId(), config.getGroup(), e);
+        }
+    }
+
+    /**
+     * 配置已发布(或无需发布), 移出发件箱
+     *
+     * @param config 配置元数据
+     */
+    public synchronized void complete(ConfigMetadata config) {
+        String key = buildKey(config);
+        if (pending.remove(key) == null) {
+            return;
+        }
+
+        try {
+            // 完成记录丢失时重启后会再重放一次, 发布是幂等的, 无需刷盘
+            append(OP_DONE + "\t" + key, false);
+        } catch (IOException e) {
+            log.warn("写入发布发件箱失败: {}, 错误: {}", key, e.getMessage());
+        }
+
+        if (logLines > COMPACT_MIN_LINES && logLines > pending.size() * 2) {
+            compact();
+        }
+    }
+
+    /**
+     * 重放失败, 按指数退避安排下次重放; 超过最大次数时放弃
+     *
+     * @param entry 待发布项
+     */
+    public synchronized void reschedule(OutboxEntry entry) {
+        if (pending.get(entry.getKey()) != entry) {
+            return;
+        }
+
+        entry.setAttempts(entry.getAttempts() + 1);
+        int maxAttempts = configManagerProperties.getOutboxMaxAttempts();
+        if (maxAttempts > 0 && entry.getAttempts() >= maxAttempts) {
+            log.error("配置重放失败次数达到上限，移出发件箱(等待下次全量同步): dataId={}, group={}, 次数: {}",
+                entry.getConfig().getDataId(), entry.getConfig().getGroup(), entry.getAttempts());
+            complete(entry.getConfig());
+            return;
+        }
+
+        entry.setNextAttemptTime(System.currentTimeMillis() + computeBackoff(entry.getAttempts()));
+    }
+
+    /**
+     * 获取待重放项
+     *
+     * @param all 是否忽略退避时间(启动时排空发件箱)
+     * @return 待重放项
+     */
+    public synchronized List<OutboxEntry> due(boolean all) {
+        long now = System.currentTimeMillis();
+        List<OutboxEntry> result = new ArrayList<>();
+        for (OutboxEntry entry : pending.values()) {
+            if (all || entry.getNextAttemptTime() <= now) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取全部待发布项
+     *
+     * @return 待发布项列表(按加入顺序)
+     */
+    public synchronized List<OutboxEntry> list() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * 指数退避时间(带随机抖动)
+     *
+     * @param attempts 已重放次数
+     * @return 退避时间(毫秒)
+     */
+    private long computeBackoff(int attempts) {
+        long delay = Math.min(configManagerProperties.getOutboxRetryMaxMillis(),
+            configManagerProperties.getOutboxRetryBaseMillis() << Math.min(attempts, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * 追加记录到发件箱文件
+     *
+     * @param line 记录
+     * @param sync 是否刷盘
+     * @throws IOException 写入异常
+     */
+    private void append(String line, boolean sync) throws IOException {
+        Path outboxFile = getOutboxFile();
+        Files.createDirectories(outboxFile.getParent());
+
+        try (FileChannel channel = FileChannel.open(outboxFile,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap((line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        }
+        logLines++;
+    }
+
+    /**
+     * 压缩发件箱文件, 只保留待发布项
+     */
+    private void compact() {
+        if (loadFailed) {
+            return;
+        }
+
+        Path outboxFile = getOutboxFile();
+        Path tempFile = outboxFile.resolveSibling(OUTBOX_FILE_NAME + ".tmp");
+
+        try {
+            Files.createDirectories(outboxFile.getParent());
+
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                for (OutboxEntry entry : pending.values()) {
+                    writer.write(OP_ENQUEUE + "\t" + entry.getKey() + "\t" + entry.getEnqueueTime() + "\t" +
+                        JSONUtil.toJsonStr(entry.getConfig()));
+                    writer.newLine();
+                }
+            }
+
+            Files.move(tempFile, outboxFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logLines = pending.size();
+        } catch (IOException e) {
+            log.warn("压缩发布发件箱失败: {}, 错误: {}", outboxFile, e.getMessage());
+        }
+    }
+
+    /**
+     * 复制配置元数据, 有文件位置时不保存内容(重放时读取当前内容)
+     */
+    private ConfigMetadata copyMetadata(ConfigMetadata config) {
+        ConfigMetadata copy = JSONUtil.toBean(JSONUtil.toJsonStr(config), ConfigMetadata.class);
+        if (StringUtils.hasText(copy.getLocation())) {
+            copy.setContent(null);
+        }
+        return copy.setContentMd5(null);
+    }
+
+    private String buildKey(ConfigMetadata config) {
+        return config.getNamespace() + "/" + config.getGroup() + "/" + config.getDataId();
+    }
+
+    private Path getOutboxFile() {
+        return Paths.get(configManagerProperties.getBackupPath(), OUTBOX_FILE_NAME);
+    }
+}
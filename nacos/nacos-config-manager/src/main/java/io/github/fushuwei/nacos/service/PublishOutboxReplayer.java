@@ -0,0 +1,108 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.core.thread.ThreadUtil;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.OutboxEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发布发件箱重放服务类
+ * 后台线程定期重放到期的待发布项, 失败时按指数退避重新安排; 应用启动时在全量同步之前排空发件箱(有时间上限),
+ * Nacos短暂不可用时无需等待下次全量同步即可收敛; 重放与同步任务共用配置锁, 同一配置不会并发发布
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class PublishOutboxReplayer {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private PublishOutbox publishOutbox;
+
+    @Autowired
+    private ConfigSyncService configSyncService;
+
+    private final ScheduledExecutorService replayExecutor =
+        Executors.newSingleThreadScheduledExecutor(ThreadUtil.newNamedThreadFactory("publish-outbox-", true));
+
+    @PostConstruct
+    public void start() {
+        if (!configManagerProperties.isOutboxEnabled()) {
+            return;
+        }
+
+        long interval = Math.max(100, configManagerProperties.getOutboxReplayInterval());
+        replayExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                replay(false, Long.MAX_VALUE);
+            } catch (Exception e) {
+                log.error("重放发布发件箱异常", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 排空发件箱: 忽略退避时间重放全部待发布项(启动时在全量同步之前调用)
+     * 超过排空时间上限后停止, 剩余项由后台线程按退避时间继续重放
+     */
+    public void drain() {
+        if (!configManagerProperties.isOutboxEnabled()) {
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + Math.max(0, configManagerProperties.getOutboxDrainTimeout());
+        int replayed = replay(true, deadline);
+        if (replayed > 0) {
+            log.info("启动时重放发布发件箱完成, 重放 {} 个, 剩余 {} 个", replayed, publishOutbox.list().size());
+        }
+    }
+
+    /**
+     * 重放待发布项
+     *
+     * @param all 是否忽略退避时间
+     * @param deadline 截止时间(毫秒), 超过后停止重放
+     * @return 重放数量
+     */
+    private synchronized int replay(boolean all, long deadline) {
+        List<OutboxEntry> entries = publishOutbox.due(all);
+        int replayed = 0;
+        for (OutboxEntry entry : entries) {
+            if (replayExecutor.isShutdown()) {
+                break;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                log.warn("重放发布发件箱超过时间上限，剩余 {} 个由后台继续重放", entries.size() - replayed);
+                break;
+            }
+            replayed++;
+
+            log.debug("重放待发布配置: dataId={}, group={}, 第 {} 次",
+                entry.getConfig().getDataId(), entry.getConfig().getGroup(), entry.getAttempts() + 1);
+            if (configSyncService.replayPublish(entry.getConfig())) {
+                publishOutbox.complete(entry.getConfig());
+            } else {
+                publishOutbox.reschedule(entry);
+            }
+        }
+        return replayed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replayExecutor.shutdown();
+    }
+}
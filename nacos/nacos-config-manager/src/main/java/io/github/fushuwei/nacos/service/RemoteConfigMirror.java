@@ -0,0 +1,413 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.alibaba.nacos.api.config.listener.AbstractListener;
+import com.alibaba.nacos.api.config.listener.Listener;
+import com.alibaba.nacos.api.exception.NacosException;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.config.NacosConfigServicePool;
+import io.github.fushuwei.nacos.entity.RemoteConfigState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * 远程配置镜像
+ * 在内存中保存本服务管理的远程配置, 每个镜像配置注册Nacos监听器, 远程变更时由回调更新镜像,
+ * 读取与同步计划直接使用镜像内容, 只有首次读取与监听通知需要访问Nacos;
+ * 镜像数量超过上限时淘汰最久未访问的配置并注销其监听器
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class RemoteConfigMirror {
+
+    @Autowired
+    private ConfigManagerProperties configManagerProperties;
+
+    @Autowired
+    private NacosConfigServicePool nacosConfigServicePool;
+
+    /**
+     * 注销监听器线程(淘汰在持锁时发生, 注销放到锁外执行)
+     */
+    private final ExecutorService listenerExecutor =
+        Executors.newSingleThreadExecutor(ThreadUtil.newNamedThreadFactory("config-mirror-", true));
+
+    /**
+     * 镜像标识(Nacos命名空间ID/分组/dataId) -> 镜像项(按访问顺序, 超出数量时淘汰最久未访问的配置)
+     */
+    private Map<String, MirrorEntry> entries;
+
+    /**
+     * 镜像数量上限(配置目录超过上限时自动扩大)
+     */
+    private volatile int capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong notifications = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * 远程变更回调(命名空间, 变更后的远程配置状态)
+     */
+    private final List<BiConsumer<String, RemoteConfigState>> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 加入镜像回调(命名空间, 加入时的远程配置状态)
+     */
+    private final List<BiConsumer<String, RemoteConfigState>> registerListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        capacity = Math.max(1, configManagerProperties.getMirrorCacheSize());
+        entries = new LinkedHashMap<String, MirrorEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MirrorEntry> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                evictions.incrementAndGet();
+                unregister(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * 是否启用镜像
+     *
+     * @return 是否启用
+     */
+    public boolean isEnabled() {
+        return configManagerProperties.isMirrorEnabled();
+    }
+
+    /**
+     * 按本服务管理的配置数量调整镜像上限
+     * 配置数量超过上限时每次同步都会淘汰并重新注册监听器, 此时将上限扩大到配置数量
+     *
+     * @param configCount 配置数量
+     */
+    public void ensureCapacity(int configCount) {
+        if (configCount <= capacity) {
+            return;
+        }
+        synchronized (this) {
+            if (configCount > capacity) {
+                log.warn("配置数量 {} 超过远程配置镜像上限 {}(mirror-cache-size)，镜像上限扩大为 {}",
+                    configCount, capacity, configCount);
+                capacity = configCount;
+            }
+        }
+    }
+
+    /**
+     * 读取镜像中的远程配置状态
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @return 远程配置状态, 未镜像时返回null
+     */
+    public RemoteConfigState get(String namespace, String dataId, String group) {
+        MirrorEntry entry;
+        synchronized (this) {
+            entry = entries.get(buildKey(namespace, dataId, group));
+        }
+        (entry != null ? hits : misses).incrementAndGet();
+        return entry != null ? entry.state : null;
+    }
+
+    /**
+     * 是否已镜像(不影响访问顺序与命中统计)
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @return 是否已镜像
+     */
+    public synchronized boolean contains(String namespace, String dataId, String group) {
+        return entries.containsKey(buildKey(namespace, dataId, group));
+    }
+
+    /**
+     * 读取远程配置并注册监听器(一次请求完成), 读取结果加入镜像;
+     * 请求返回前到达的监听通知在加入镜像后处理, 不会丢失
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @param timeoutMs 超时时间
+     * @return 配置内容
+     * @throws NacosException Nacos异常
+     */
+    public String load(String namespace, String dataId, String group, long timeoutMs) throws NacosException {
+        MirrorEntry entry = new MirrorEntry(namespace, dataId, group);
+        String content = nacosConfigServicePool.get(namespace).getConfigAndSignListener(dataId, group, timeoutMs, entry.listener);
+        entry.state = buildState(dataId, group, content);
+        register(entry);
+        return content;
+    }
+
+    /**
+     * 将已知的远程配置状态加入镜像并注册监听器(如批量拉取得到的状态), 已镜像时不重复注册
+     *
+     * @param namespace 命名空间
+     * @param remote 远程配置状态
+     */
+    public void watch(String namespace, RemoteConfigState remote) {
+        if (contains(namespace, remote.getDataId(), remote.getGroup())) {
+            return;
+        }
+
+        MirrorEntry entry = new MirrorEntry(namespace, remote.getDataId(), remote.getGroup());
+        entry.state = remote;
+        try {
+            nacosConfigServicePool.get(namespace).addListener(remote.getDataId(), remote.getGroup(), entry.listener);
+            register(entry);
+        } catch (NacosException e) {
+            log.warn("注册配置监听器失败: dataId={}, group={}, 错误: {}", remote.getDataId(), remote.getGroup(), e.getErrMsg());
+        }
+    }
+
+    /**
+     * 注册远程变更回调, 监听通知的内容与镜像不同时调用(本服务自身发布产生的通知不会触发)
+     *
+     * @param listener 回调(命名空间, 变更后的远程配置状态)
+     */
+    public void addChangeListener(BiConsumer<String, RemoteConfigState> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * 注册加入镜像回调, 配置首次加入镜像(或淘汰后重新加入)时以读取到的远程状态调用,
+     * 用于比对本服务未运行或未监听期间发生的远程修改
+     *
+     * @param listener 回调(命名空间, 加入时的远程配置状态)
+     */
+    public void addRegisterListener(BiConsumer<String, RemoteConfigState> listener) {
+        registerListeners.add(listener);
+    }
+
+    /**
+     * 本服务发布或删除配置后直接更新镜像(不等待监听通知), 未镜像的配置忽略
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @param content 配置内容, 为null表示已删除
+     */
+    public void update(String namespace, String dataId, String group, String content) {
+        RemoteConfigState state = buildState(dataId, group, content);
+        synchronized (this) {
+            MirrorEntry entry = entries.get(buildKey(namespace, dataId, group));
+            if (entry != null) {
+                entry.state = state;
+            }
+        }
+    }
+
+    /**
+     * 重新读取远程配置后更新镜像(如发布冲突后), 内容变化时与监听通知一样触发远程变更回调;
+     * 未镜像的配置忽略
+     *
+     * @param namespace 命名空间
+     * @param dataId 数据ID
+     * @param group 分组
+     * @param content 最新配置内容, 为null表示不存在
+     */
+    public void refresh(String namespace, String dataId, String group, String content) {
+        MirrorEntry entry;
+        synchronized (this) {
+            entry = entries.get(buildKey(namespace, dataId, group));
+        }
+        if (entry != null) {
+            onChange(entry, content);
+        }
+    }
+
+    /**
+     * 获取镜像统计快照
+     *
+     * @return 镜像数量、命中、未命中、监听通知与淘汰次数
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        synchronized (this) {
+            result.put("size", entries.size());
+        }
+        result.put("hits", hits.get());
+        result.put("misses", misses.get());
+        result.put("notifications", notifications.get());
+        result.put("evictions", evictions.get());
+        return result;
+    }
+
+    /**
+     * 注销全部监听器
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            entries.values().forEach(this::unregister);
+            entries.clear();
+        }
+        listenerExecutor.shutdown();
+    }
+
+    /**
+     * 加入镜像, 并发加载同一配置时保留先加入的镜像项, 注销多余的监听器;
+     * 加入后调用加入镜像回调, 加入前监听器已收到的通知随后按变更处理
+     */
+    private void register(MirrorEntry entry) {
+        RemoteConfigState initialState;
+        boolean earlyNotified;
+        String earlyContent;
+        synchronized (this) {
+            if (entries.containsKey(entry.key)) {
+                initialState = null;
+                earlyNotified = false;
+                earlyContent = null;
+            } else {
+                entries.put(entry.key, entry);
+                entry.registered = true;
+                initialState = entry.state;
+                earlyNotified = entry.earlyNotified;
+                earlyContent = entry.earlyContent;
+                entry.earlyContent = null;
+            }
+        }
+
+        if (initialState == null) {
+            unregister(entry);
+            return;
+        }
+
+        notifyListeners(registerListeners, entry, initialState);
+        if (earlyNotified) {
+            onChange(entry, earlyContent);
+        }
+    }
+
+    /**
+     * 异步注销监听器
+     */
+    private void unregister(MirrorEntry entry) {
+        if (listenerExecutor.isShutdown()) {
+            return;
+        }
+        listenerExecutor.execute(() -> {
+            try {
+                nacosConfigServicePool.get(entry.namespace).removeListener(entry.dataId, entry.group, entry.listener);
+            } catch (NacosException e) {
+                log.debug("注销配置监听器失败: dataId={}, group={}, 错误: {}", entry.dataId, entry.group, e.getErrMsg());
+            }
+        });
+    }
+
+    /**
+     * 远程配置变更(监听通知或重新读取)后更新镜像
+     */
+    private void onChange(MirrorEntry source, String content) {
+        RemoteConfigState state = buildState(source.dataId, source.group, content);
+        synchronized (this) {
+            // 监听器已注册但镜像项尚未加入(读取请求未返回), 记录通知内容, 加入镜像后处理
+            if (!source.registered) {
+                source.earlyNotified = true;
+                source.earlyContent = content;
+                return;
+            }
+            // 只更新仍在镜像中的同一镜像项, 已淘汰的镜像项不再恢复;
+            // 内容与镜像一致的通知(本服务发布后已直接更新镜像)不视为变更
+            if (entries.get(source.key) != source || Objects.equals(source.state.getMd5(), state.getMd5())) {
+                return;
+            }
+            source.state = state;
+        }
+        log.debug("远程配置变更通知: dataId={}, group={}, 存在={}", source.dataId, source.group, state.isExists());
+        notifyListeners(changeListeners, source, state);
+    }
+
+    /**
+     * 调用回调, 单个回调异常不影响其他回调
+     */
+    private void notifyListeners(List<BiConsumer<String, RemoteConfigState>> listeners, MirrorEntry source,
+                                 RemoteConfigState state) {
+        for (BiConsumer<String, RemoteConfigState> listener : listeners) {
+            try {
+                listener.accept(source.namespace, state);
+            } catch (Exception e) {
+                log.warn("处理远程配置变更失败: dataId={}, group={}, 错误: {}", source.dataId, source.group, e.getMessage());
+            }
+        }
+    }
+
+    private RemoteConfigState buildState(String dataId, String group, String content) {
+        boolean exists = StringUtils.hasText(content);
+        return RemoteConfigState.builder()
+            .dataId(dataId)
+            .group(group)
+            .content(content)
+            .md5(exists ? DigestUtil.md5Hex(content) : null)
+            .exists(exists)
+            .build();
+    }
+
+    private String buildKey(String namespace, String dataId, String group) {
+        return nacosConfigServicePool.resolveNamespaceId(namespace) + "/" + group + "/" + dataId;
+    }
+
+    /**
+     * 镜像项
+     */
+    private class MirrorEntry {
+        private final String key;
+        private final String namespace;
+        private final String dataId;
+        private final String group;
+        private final Listener listener;
+        private volatile RemoteConfigState state;
+
+        /**
+         * 是否已加入镜像, 以及加入前收到的最后一次通知内容(均在持有镜像锁时读写)
+         */
+        private boolean registered;
+        private boolean earlyNotified;
+        private String earlyContent;
+
+        MirrorEntry(String namespace, String dataId, String group) {
+            this.key = buildKey(namespace, dataId, group);
+            this.namespace = namespace;
+            this.dataId = dataId;
+            this.group = group;
+            this.listener = new AbstractListener() {
+                @Override
+                public void receiveConfigInfo(String configInfo) {
+                    notifications.incrementAndGet();
+                    onChange(MirrorEntry.this, configInfo);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.fushuwei.nacos.service;
+
+import cn.hutool.core.util.IdUtil;
+import io.github.fushuwei.nacos.entity.SyncJob;
+import io.github.fushuwei.nacos.entity.SyncJobStatus;
+import io.github.fushuwei.nacos.entity.SyncScope;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 配置同步任务服务类
+ * 登记同步任务供进度查询与取消, 任务的调度执行由 {@link ConfigSyncCoordinator} 负责;
+ * 取消为协作式, 已开始的配置同步完成后停止
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class SyncJobService {
+
+    /**
+     * 保留的历史任务数量
+     */
+    private static final int MAX_JOB_HISTORY = 20;
+
+    /**
+     * 任务ID -> 任务(按提交顺序, 超出数量时淘汰最早的任务)
+     */
+    private final Map<String, SyncJob> jobs = new LinkedHashMap<String, SyncJob>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SyncJob> eldest) {
+            return size() > MAX_JOB_HISTORY;
+        }
+    };
+
+    /**
+     * 创建并登记同步任务
+     *
+     * @param scope 同步范围
+     * @return 同步任务(等待执行)
+     */
+    public synchronized SyncJob createJob(SyncScope scope) {
+        SyncJob job = new SyncJob();
+        job.setId(IdUtil.fastSimpleUUID());
+        job.setScope(scope);
+        job.setStatus(SyncJobStatus.PENDING);
+        job.setSubmitTime(System.currentTimeMillis());
+
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    /**
+     * 查询同步任务
+     *
+     * @param jobId 任务ID
+     * @return 同步任务, 不存在时返回null
+     */
+    public synchronized SyncJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * 取消同步任务
+     *
+     * @param jobId 任务ID
+     * @return 同步任务, 不存在时返回null
+     */
+    public synchronized SyncJob cancel(String jobId) {
+        SyncJob job = jobs.get(jobId);
+        if (job != null && (job.getStatus() == SyncJobStatus.PENDING || job.getStatus() == SyncJobStatus.RUNNING)) {
+            job.setCancelRequested(true);
+            log.info("已请求取消同步任务: {}", jobId);
+        }
+        return job;
+    }
+}
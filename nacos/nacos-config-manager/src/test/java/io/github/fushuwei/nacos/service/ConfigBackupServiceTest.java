@@ -0,0 +1,246 @@
+package io.github.fushuwei.nacos.service;
+
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.BackupCleanupProgress;
+import io.github.fushuwei.nacos.entity.BackupKind;
+import io.github.fushuwei.nacos.entity.BackupVersion;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证备份写入与清理: 备份对象与索引记录写入后才通知请求方, 停止后的请求直接失败, 已确认的备份重新加载后仍可读取;
+ * 过期清理保留的最新版本留在原分段, 旧版备份文件一并清理; 按时间点查询生效版本
+ */
+class ConfigBackupServiceTest {
+
+    @TempDir
+    Path backupDir;
+
+    private ConfigManagerProperties properties;
+
+    private ConfigBackupService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConfigManagerProperties();
+        properties.setBackupPath(backupDir.toString());
+        service = start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void backupCompletesAfterObjectAndIndexAreWritten() throws Exception {
+        service.backupConfigAsync(config("app.yml"), "server:\n  port: 8080\n").get(5, TimeUnit.SECONDS);
+
+        List<BackupVersion> versions = service.getVersions("dev", "APP_GROUP", "app.yml");
+        assertEquals(1, versions.size());
+        assertEquals("server:\n  port: 8080\n", service.readObject(versions.get(0).getHash()));
+        assertTrue(readIndexLines().stream().anyMatch(line -> line.contains(versions.get(0).getHash())));
+    }
+
+    @Test
+    void unchangedContentIsNotBackedUpTwice() throws Exception {
+        service.backupConfigAsync(config("app.yml"), "a: 1").get(5, TimeUnit.SECONDS);
+        service.backupConfigAsync(config("app.yml"), "a: 1").get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, service.getVersions("dev", "APP_GROUP", "app.yml").size());
+        assertEquals(1, readIndexLines().size());
+    }
+
+    @Test
+    void backupAfterShutdownFailsImmediately() {
+        service.shutdown();
+
+        CompletableFuture<Void> future = service.backupConfigAsync(config("app.yml"), "a: 1");
+        assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void acknowledgedBackupSurvivesReload() throws Exception {
+        service.backupConfigAsync(config("a.yml"), "a: 1").get(5, TimeUnit.SECONDS);
+        service.backupConfigAsync(config("b.yml"), "b: 1").get(5, TimeUnit.SECONDS);
+
+        // 模拟进程在确认备份后立即退出: 不经过shutdown, 直接由新实例加载同一备份目录
+        ConfigBackupService crashed = service;
+        service = start();
+        crashed.shutdown();
+
+        List<BackupVersion> versions = service.getVersions("dev", "APP_GROUP", "b.yml");
+        assertEquals(1, versions.size());
+        assertEquals("b: 1", service.readObject(versions.get(0).getHash()));
+        assertEquals(1, service.getVersions("dev", "APP_GROUP", "a.yml").size());
+        try (Stream<Path> files = Files.walk(backupDir.resolve("objects"))) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void trailingBackupAfterFailedPublishIsStillActive() throws Exception {
+        service.recordPublishAsync(config("app.yml"), "a: 1").get(5, TimeUnit.SECONDS);
+        Thread.sleep(5);
+        // 下次同步备份远程内容后发布失败, 远程仍是备份的内容
+        service.backupConfigAsync(config("app.yml"), "a: 1").get(5, TimeUnit.SECONDS);
+
+        List<BackupVersion> versions = service.getVersions("dev", "APP_GROUP", "app.yml");
+        assertEquals(2, versions.size());
+        long now = System.currentTimeMillis();
+
+        BackupVersion active = service.findVersionAt("dev", "APP_GROUP", "app.yml", now);
+        assertEquals(BackupKind.BACKUP, active.getKind());
+        assertEquals("a: 1", service.readObject(active.getHash()));
+        assertEquals(active, service.findVersionsAt("dev", null, now).get("dev/APP_GROUP/app.yml"));
+        assertEquals("a: 1", service.readObject(
+            service.findVersionAt("dev", "APP_GROUP", "app.yml", versions.get(0).getTimestamp()).getHash()));
+    }
+
+    @Test
+    void deletedConfigHasNoVersionAfterDeletion() throws Exception {
+        service.recordPublishAsync(config("app.yml"), "a: 1").get(5, TimeUnit.SECONDS);
+        Thread.sleep(5);
+        service.backupConfigAsync(config("app.yml"), "a: 1").get(5, TimeUnit.SECONDS);
+        Thread.sleep(5);
+        service.recordDeleteAsync(config("app.yml"), "a: 1").get(5, TimeUnit.SECONDS);
+
+        List<BackupVersion> versions = service.getVersions("dev", "APP_GROUP", "app.yml");
+        assertEquals(BackupKind.DELETE, versions.get(2).getKind());
+
+        assertNull(service.findVersionAt("dev", "APP_GROUP", "app.yml", versions.get(2).getTimestamp()));
+        assertNull(service.findVersionsAt("dev", "app", System.currentTimeMillis()).get("dev/APP_GROUP/app.yml"));
+        assertEquals(BackupKind.BACKUP,
+            service.findVersionAt("dev", "APP_GROUP", "app.yml", versions.get(1).getTimestamp()).getKind());
+    }
+
+    @Test
+    void timeBeforeFirstRecordHasNoVersion() throws Exception {
+        service.recordPublishAsync(config("app.yml"), "a: 1").get(5, TimeUnit.SECONDS);
+
+        long firstTime = service.getVersions("dev", "APP_GROUP", "app.yml").get(0).getTimestamp();
+        assertNull(service.findVersionAt("dev", "APP_GROUP", "app.yml", firstTime - 1));
+        assertEquals(BackupKind.PUBLISH, service.findVersionAt("dev", "APP_GROUP", "app.yml", firstTime).getKind());
+    }
+
+    @Test
+    void cleanupKeepsLatestVersionInItsOwnSegment() throws Exception {
+        writeObject("1111", "a: 1");
+        writeObject("2222", "a: 2");
+        Path segment = backupDir.resolve("index").resolve("20200101.log");
+        Files.createDirectories(segment.getParent());
+        Files.write(segment, List.of(
+            indexLine(1577840400000L, "1111", "app.yml"),
+            indexLine(1577844000000L, "2222", "app.yml")), StandardCharsets.UTF_8);
+        service.shutdown();
+        service = start();
+
+        BackupCleanupProgress progress = new BackupCleanupProgress();
+        service.cleanupExpiredBackups(7, progress);
+
+        assertEquals(1, progress.getExpiredVersions());
+        assertEquals(1, progress.getRetainedVersions());
+        assertEquals(List.of(indexLine(1577844000000L, "2222", "app.yml")), Files.readAllLines(segment, StandardCharsets.UTF_8));
+        assertEquals(1, readIndexLines().size());
+    }
+
+    @Test
+    void cleanupSweepsExpiredLegacyBackupFiles() throws Exception {
+        Path expired = backupDir.resolve("dev").resolve("app").resolve("dev_app_app.yml_20200101_000000.bak");
+        Path recent = backupDir.resolve("dev").resolve("other").resolve("dev_other_other.yml_20200101_000000.bak");
+        Path foreign = backupDir.resolve("dev").resolve("tools").resolve("old.bak");
+        Path foreignEmpty = backupDir.resolve("cache").resolve("empty");
+        for (Path file : List.of(expired, recent, foreign)) {
+            Files.createDirectories(file.getParent());
+            Files.write(file, "a: 1".getBytes(StandardCharsets.UTF_8));
+        }
+        Files.createDirectories(foreignEmpty);
+        long expiredTime = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30);
+        Files.setLastModifiedTime(expired, FileTime.fromMillis(expiredTime));
+        Files.setLastModifiedTime(foreign, FileTime.fromMillis(expiredTime));
+        // 模拟旧版部署: 尚未清理过旧版备份
+        Files.delete(backupDir.resolve(".legacy-backups-swept"));
+        service = start();
+
+        BackupCleanupProgress progress = new BackupCleanupProgress();
+        service.cleanupExpiredBackups(7, progress);
+
+        assertEquals(1, progress.getDeletedLegacyFiles());
+        assertFalse(Files.exists(expired.getParent()));
+        assertTrue(Files.exists(recent));
+        assertTrue(Files.exists(foreign));
+        assertTrue(Files.exists(foreignEmpty));
+        assertFalse(Files.exists(backupDir.resolve(".legacy-backups-swept")));
+
+        // 剩余的旧版备份过期后清理完成, 写入完成标记
+        Files.setLastModifiedTime(recent, FileTime.fromMillis(expiredTime));
+        service.cleanupExpiredBackups(7, new BackupCleanupProgress());
+
+        assertFalse(Files.exists(recent.getParent()));
+        assertTrue(Files.exists(foreign));
+        assertTrue(Files.exists(backupDir.resolve(".legacy-backups-swept")));
+    }
+
+    private ConfigBackupService start() {
+        ConfigBackupService backupService = new ConfigBackupService();
+        ReflectionTestUtils.setField(backupService, "configManagerProperties", properties);
+        backupService.init();
+        return backupService;
+    }
+
+    private List<String> readIndexLines() throws IOException {
+        try (Stream<Path> segments = Files.list(backupDir.resolve("index"))) {
+            return segments.flatMap(segment -> {
+                try {
+                    return Files.readAllLines(segment, StandardCharsets.UTF_8).stream();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).collect(Collectors.toList());
+        }
+    }
+
+    private void writeObject(String hash, String content) throws IOException {
+        Path objectFile = backupDir.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash.substring(2) + ".gz");
+        Files.createDirectories(objectFile.getParent());
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(objectFile))) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String indexLine(long timestamp, String hash, String dataId) {
+        return String.join("\t", String.valueOf(timestamp), hash, "dev", "app", "dev", "APP_GROUP", dataId, "BACKUP");
+    }
+
+    private static ConfigMetadata config(String dataId) {
+        return new ConfigMetadata()
+            .setEnvironment("dev")
+            .setAppName("app")
+            .setNamespace("dev")
+            .setGroup("APP_GROUP")
+            .setDataId(dataId);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.fushuwei.nacos.service;
+
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ConfigDiff;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证语义比对: 忽略空白、注释与键顺序, 区分标量类型, 报告键级差异
+ */
+class ConfigSemanticComparatorTest {
+
+    private ConfigSemanticComparator comparator;
+
+    @BeforeEach
+    void setUp() {
+        comparator = new ConfigSemanticComparator();
+        ReflectionTestUtils.setField(comparator, "configManagerProperties", new ConfigManagerProperties());
+        comparator.init();
+    }
+
+    @Test
+    void formattingOnlyChangesAreEquivalent() {
+        ConfigDiff diff = comparator.diff("yml",
+            "server:\n  port: 8080\n  host: localhost\n", null,
+            "# comment\nserver:\n    host: localhost\n    port: 8080\n", null);
+
+        assertTrue(diff.isEquivalent());
+    }
+
+    @Test
+    void scalarTypesAreDistinguished() {
+        assertFalse(comparator.diff("yml", "port: 8080", null, "port: \"8080\"", null).isEquivalent());
+        assertFalse(comparator.diff("yml", "enabled: true", null, "enabled: \"true\"", null).isEquivalent());
+        assertFalse(comparator.diff("yml", "value: ~", null, "value: \"null\"", null).isEquivalent());
+        assertFalse(comparator.diff("yml", "items: []", null, "items: \"[]\"", null).isEquivalent());
+        assertFalse(comparator.diff("json", "{\"port\": 8080}", null, "{\"port\": \"8080\"}", null).isEquivalent());
+    }
+
+    @Test
+    void sameScalarWithDifferentSpellingIsEquivalent() {
+        assertTrue(comparator.diff("yml", "value: ~", null, "value: null", null).isEquivalent());
+        assertTrue(comparator.diff("yml", "enabled: true", null, "enabled: True", null).isEquivalent());
+    }
+
+    @Test
+    void reportsKeyLevelDifferences() {
+        ConfigDiff diff = comparator.diff("properties",
+            "a=1\nb=2\nc=3\n", null,
+            "b=2\nc=4\nd=5\n", null);
+
+        assertFalse(diff.isEquivalent());
+        assertEquals(List.of("a"), diff.getAddedKeys());
+        assertEquals(List.of("d"), diff.getRemovedKeys());
+        assertEquals(List.of("c"), diff.getChangedKeys());
+    }
+
+    @Test
+    void unparseableContentReturnsNull() {
+        assertNull(comparator.diff("yml", "key: [unclosed", null, "key: value", null));
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.fushuwei.nacos.service;
+
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.SyncJob;
+import io.github.fushuwei.nacos.entity.SyncScope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 验证文件监听: 目录被移走时, 原目录下的配置从配置目录移除并按设置删除远程配置, 新目录下的配置按新增同步
+ */
+class ConfigWatchServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+
+    private ConfigCatalogService catalogService;
+
+    private ConfigWatchService watchService;
+
+    private final List<ConfigMetadata> removedConfigs = new CopyOnWriteArrayList<>();
+
+    private final List<SyncScope> triggeredScopes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        root = tempDir.resolve("configs");
+        Path app = Files.createDirectories(root.resolve("dev").resolve("app"));
+        Files.write(app.resolve("a.yml"), "a: 1".getBytes(StandardCharsets.UTF_8));
+        Files.write(app.resolve("b.yml"), "b: 1".getBytes(StandardCharsets.UTF_8));
+
+        ConfigManagerProperties properties = new ConfigManagerProperties();
+        properties.setConfigRootPath(root.toString());
+        properties.setBackupPath(tempDir.resolve("backup").toString());
+        properties.setSyncMode(ConfigManagerProperties.SyncMode.WATCH);
+        properties.setWatchDebounceMillis(100);
+        properties.setWatchMaxDelayMillis(1000);
+        properties.setWatchDeleteRemote(true);
+
+        ConfigSyncMetrics metrics = new ConfigSyncMetrics();
+        ReflectionTestUtils.setField(metrics, "meterRegistry", new SimpleMeterRegistry());
+        ConfigFingerprintCache fingerprintCache = new ConfigFingerprintCache();
+        ReflectionTestUtils.setField(fingerprintCache, "configManagerProperties", properties);
+
+        ConfigFileService fileService = new ConfigFileService();
+        ReflectionTestUtils.setField(fileService, "configManagerProperties", properties);
+        ReflectionTestUtils.setField(fileService, "configFingerprintCache", fingerprintCache);
+        ReflectionTestUtils.setField(fileService, "configSyncMetrics", metrics);
+
+        catalogService = new ConfigCatalogService();
+        ReflectionTestUtils.setField(catalogService, "configFileService", fileService);
+        catalogService.refresh();
+
+        ConfigSyncCoordinator coordinator = new ConfigSyncCoordinator() {
+            @Override
+            public synchronized SyncJob trigger(SyncScope scope, boolean attachToRunning) {
+                triggeredScopes.add(scope);
+                return null;
+            }
+
+            @Override
+            public CompletableFuture<Boolean> removeConfig(ConfigMetadata config) {
+                removedConfigs.add(config);
+                return CompletableFuture.completedFuture(true);
+            }
+        };
+
+        watchService = new ConfigWatchService();
+        ReflectionTestUtils.setField(watchService, "configManagerProperties", properties);
+        ReflectionTestUtils.setField(watchService, "configFileService", fileService);
+        ReflectionTestUtils.setField(watchService, "configCatalogService", catalogService);
+        ReflectionTestUtils.setField(watchService, "configSyncCoordinator", coordinator);
+        watchService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchService.stop();
+    }
+
+    @Test
+    void renamedDirectoryRemovesOldEntries() throws Exception {
+        Files.move(root.resolve("dev").resolve("app"), root.resolve("dev").resolve("renamed"));
+
+        long deadline = System.currentTimeMillis() + 15000;
+        while (System.currentTimeMillis() < deadline && (removedConfigs.size() < 2 || catalogFileNames().size() < 2
+            || catalogFileNames().stream().anyMatch(path -> path.contains("/app/")))) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(Set.of("app-a.yml", "app-b.yml"),
+            removedConfigs.stream().map(ConfigMetadata::getDataId).collect(Collectors.toSet()));
+        assertEquals(Set.of(root + "/dev/renamed/a.yml", root + "/dev/renamed/b.yml"), catalogFileNames());
+    }
+
+    private Set<String> catalogFileNames() {
+        return catalogService.list().stream().map(ConfigMetadata::getFilePath).collect(Collectors.toSet());
+    }
+}
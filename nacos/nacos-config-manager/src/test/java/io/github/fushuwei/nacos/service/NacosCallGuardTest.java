@@ -0,0 +1,117 @@
+package io.github.fushuwei.nacos.service;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证调用保护: 并发限制随成功增加、随服务端错误减半, 客户端错误不影响限制与熔断,
+ * 只重试服务端错误, 连续失败后熔断并在到期后放行探测调用
+ */
+class NacosCallGuardTest {
+
+    private ConfigManagerProperties.CallGuardConfig config;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        config = new ConfigManagerProperties.CallGuardConfig();
+        config.setInitialLimit(8);
+        config.setMaxRetries(0);
+        config.setRetryBaseDelayMillis(1);
+        config.setRetryMaxDelayMillis(5);
+        config.setBreakerFailureThreshold(2);
+        config.setBreakerOpenMillis(100);
+    }
+
+    @Test
+    void limitGrowsOnSuccessAndHalvesOnServerError() throws Exception {
+        NacosCallGuard guard = new NacosCallGuard(config);
+        for (int i = 0; i < 10; i++) {
+            guard.execute("getConfig", () -> "ok");
+        }
+        assertEquals(9, guard.snapshot().get("limit"));
+
+        assertThrows(NacosException.class, () -> guard.execute("getConfig", fail(NacosException.SERVER_ERROR)));
+        assertEquals(4, guard.snapshot().get("limit"));
+        assertEquals(1, guard.snapshot().get("consecutiveFailures"));
+    }
+
+    @Test
+    void clientErrorsLeaveLimitAndBreakerUnchanged() {
+        NacosCallGuard guard = new NacosCallGuard(config);
+        for (int i = 0; i < 5; i++) {
+            assertThrows(NacosException.class, () -> guard.execute("publishConfig", fail(NacosException.NO_RIGHT)));
+        }
+
+        assertEquals(8, guard.snapshot().get("limit"));
+        assertEquals(0, guard.snapshot().get("consecutiveFailures"));
+        assertFalse((Boolean) guard.snapshot().get("circuitOpen"));
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    void onlyServerErrorsAreRetried() throws Exception {
+        config.setMaxRetries(2);
+        NacosCallGuard guard = new NacosCallGuard(config);
+
+        assertEquals("ok", guard.execute("getConfig", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new NacosException(NacosException.OVER_THRESHOLD, "busy");
+            }
+            return "ok";
+        }));
+        assertEquals(3, calls.get());
+
+        calls.set(0);
+        assertThrows(NacosException.class, () -> guard.execute("getConfig", fail(NacosException.INVALID_PARAM)));
+        assertEquals(1, calls.get());
+
+        assertTrue(guard.isRetryable(new NacosException(NacosException.CLIENT_DISCONNECT, "")));
+        assertTrue(guard.isRetryable(new NacosException(NacosException.BAD_GATEWAY, "")));
+        assertFalse(guard.isRetryable(new NacosException(NacosException.NO_RIGHT, "")));
+        assertFalse(guard.isRetryable(new NacosException(NacosException.CLIENT_INVALID_PARAM, "")));
+    }
+
+    @Test
+    void breakerOpensAfterConsecutiveFailuresAndRecoversOnProbe() throws Exception {
+        NacosCallGuard guard = new NacosCallGuard(config);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(NacosException.class, () -> guard.execute("getConfig", fail(NacosException.SERVER_ERROR)));
+        }
+        assertTrue((Boolean) guard.snapshot().get("circuitOpen"));
+
+        // 熔断期间直接拒绝, 不发起调用
+        NacosException rejected = assertThrows(NacosException.class, () -> guard.execute("getConfig", fail(NacosException.SERVER_ERROR)));
+        assertEquals(NacosException.CLIENT_OVER_THRESHOLD, rejected.getErrCode());
+        assertEquals(2, calls.get());
+
+        // 探测失败重新熔断
+        Thread.sleep(150);
+        assertThrows(NacosException.class, () -> guard.execute("getConfig", fail(NacosException.SERVER_ERROR)));
+        assertEquals(3, calls.get());
+        assertTrue((Boolean) guard.snapshot().get("circuitOpen"));
+
+        // 探测成功恢复
+        Thread.sleep(150);
+        assertEquals("ok", guard.execute("getConfig", () -> "ok"));
+        assertFalse((Boolean) guard.snapshot().get("circuitOpen"));
+        assertEquals(0, guard.snapshot().get("consecutiveFailures"));
+    }
+
+    private NacosCallGuard.NacosCall<String> fail(int errCode) {
+        return () -> {
+            calls.incrementAndGet();
+            throw new NacosException(errCode, "error " + errCode);
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.fushuwei.nacos.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ImportResult;
+import io.github.fushuwei.nacos.entity.RemoteConfigState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 使用本地桩服务模拟Nacos Open API, 验证分页拉取配置清单、批量导入结果解析与地址连接失败时切换
+ */
+class NacosOpenApiClientTest {
+
+    private HttpServer server;
+
+    private final AtomicInteger loginCount = new AtomicInteger();
+
+    private final AtomicInteger listCount = new AtomicInteger();
+
+    private ConfigManagerProperties properties;
+
+    private NacosOpenApiClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/nacos/v1/auth/login", exchange -> {
+            loginCount.incrementAndGet();
+            respond(exchange, 200, "{\"accessToken\":\"test-token\",\"tokenTtl\":18000}");
+        });
+        server.createContext("/nacos/v1/cs/configs", exchange -> {
+            listCount.incrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            if (!query.contains("accessToken=test-token")) {
+                respond(exchange, 403, "forbidden");
+                return;
+            }
+            if (query.contains("import=true")) {
+                respond(exchange, 200, "{\"code\":200,\"data\":{\"succCount\":1,\"skipCount\":1,"
+                    + "\"skipData\":[{\"dataId\":\"b.yml\",\"group\":\"APP_GROUP\"}],\"unrecognizedCount\":1,"
+                    + "\"unrecognizedData\":[{\"itemName\":\"APP_GROUP/c.yml\",\"unrecognizedReason\":\"未在元数据中找到\"}]}}");
+                return;
+            }
+            int pageNo = query.contains("pageNo=3") ? 3 : query.contains("pageNo=2") ? 2 : 1;
+            respond(exchange, 200, "{\"totalCount\":5,\"pageNumber\":" + pageNo + ",\"pagesAvailable\":3,\"pageItems\":["
+                + item("app-" + pageNo + "a.yml") + (pageNo < 3 ? "," + item("app-" + pageNo + "b.yml") : "") + "]}");
+        });
+        server.start();
+
+        properties = new ConfigManagerProperties();
+        properties.getNacos().setServerAddr("127.0.0.1:" + server.getAddress().getPort());
+        properties.getNacos().setListPageSize(2);
+        client = start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void listConfigsFetchesAllPages() throws Exception {
+        List<RemoteConfigState> configs = client.listConfigs("", "APP_GROUP");
+
+        assertEquals(5, configs.size());
+        assertEquals(3, listCount.get());
+        assertEquals(1, loginCount.get());
+        assertEquals("app-1a.yml", configs.get(0).getDataId());
+        assertEquals("md5-app-3a.yml", configs.get(4).getMd5());
+    }
+
+    @Test
+    void importConfigsCollectsUnrecognizedItems() throws Exception {
+        ImportResult result = client.importConfigs("", new byte[0], "import.zip");
+
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(1, result.getUnrecognizedCount());
+        assertTrue(result.getSkippedKeys().contains("APP_GROUP/b.yml"));
+        assertTrue(result.getUnrecognizedKeys().contains("APP_GROUP/c.yml"));
+    }
+
+    @Test
+    void unreachableServerFailsOverToNextAddress() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        properties.getNacos().setServerAddr("127.0.0.1:" + closedPort + ", 127.0.0.1:" + server.getAddress().getPort());
+        client = start();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(5, client.listConfigs("", "APP_GROUP").size());
+        }
+        assertEquals(9, listCount.get());
+        assertEquals(0, client.guardSnapshot().get("consecutiveFailures"));
+    }
+
+    private NacosOpenApiClient start() {
+        NacosOpenApiClient openApiClient = new NacosOpenApiClient();
+        ReflectionTestUtils.setField(openApiClient, "configManagerProperties", properties);
+        ReflectionTestUtils.setField(openApiClient, "nacosCallStatistics", new NacosCallStatistics());
+        openApiClient.init();
+        return openApiClient;
+    }
+
+    private static String item(String dataId) {
+        return "{\"dataId\":\"" + dataId + "\",\"group\":\"APP_GROUP\",\"content\":\"key: value\",\"md5\":\"md5-" + dataId + "\"}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
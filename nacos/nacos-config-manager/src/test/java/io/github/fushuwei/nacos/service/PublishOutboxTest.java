@@ -0,0 +1,127 @@
+package io.github.fushuwei.nacos.service;
+
+import io.github.fushuwei.nacos.config.ConfigManagerProperties;
+import io.github.fushuwei.nacos.entity.ConfigMetadata;
+import io.github.fushuwei.nacos.entity.OutboxEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证发布发件箱: 损坏的记录只跳过该行, 重新加载与完成项过多时压缩文件, 重放次数达到上限后移出发件箱
+ */
+class PublishOutboxTest {
+
+    @TempDir
+    Path backupDir;
+
+    private ConfigManagerProperties properties;
+
+    private PublishOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConfigManagerProperties();
+        properties.setBackupPath(backupDir.toString());
+        outbox = start();
+    }
+
+    @Test
+    void reloadSkipsMalformedAndTruncatedLines() throws Exception {
+        outbox.enqueue(config("a.yml"));
+        append("E\tdev/APP_GROUP/x.yml\tnot-a-time\t{}");
+        outbox.enqueue(config("b.yml"));
+        // 模拟写入中断: 最后一行只写了一半
+        append("E\tdev/APP_GROUP/c.yml\t1700000000000\t{\"dataId\":\"c.y");
+
+        outbox = start();
+
+        assertEquals(List.of("a.yml", "b.yml"), pendingDataIds());
+        assertEquals(2, readLines().size());
+    }
+
+    @Test
+    void reloadCompactsCompletedEntries() throws Exception {
+        outbox.enqueue(config("a.yml"));
+        outbox.enqueue(config("b.yml"));
+        outbox.complete(config("a.yml"));
+        assertEquals(3, readLines().size());
+
+        outbox = start();
+
+        assertEquals(List.of("b.yml"), pendingDataIds());
+        List<String> lines = readLines();
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("E\tdev/APP_GROUP/b.yml\t"));
+    }
+
+    @Test
+    void completingManyEntriesCompactsTheFile() throws Exception {
+        for (int i = 0; i < 600; i++) {
+            outbox.enqueue(config("app-" + i + ".yml"));
+        }
+        for (int i = 0; i < 600; i++) {
+            outbox.complete(config("app-" + i + ".yml"));
+        }
+
+        assertTrue(readLines().size() < 600, "发件箱文件应已压缩");
+        assertTrue(start().list().isEmpty());
+    }
+
+    @Test
+    void entryIsDroppedAfterMaxAttempts() throws Exception {
+        properties.setOutboxMaxAttempts(3);
+        outbox.enqueue(config("a.yml"));
+
+        OutboxEntry entry = outbox.list().get(0);
+        outbox.reschedule(entry);
+        outbox.reschedule(entry);
+        assertEquals(2, outbox.list().get(0).getAttempts());
+
+        outbox.reschedule(entry);
+        assertTrue(outbox.list().isEmpty());
+        assertTrue(start().list().isEmpty());
+    }
+
+    private PublishOutbox start() {
+        PublishOutbox publishOutbox = new PublishOutbox();
+        ReflectionTestUtils.setField(publishOutbox, "configManagerProperties", properties);
+        publishOutbox.load();
+        return publishOutbox;
+    }
+
+    private List<String> pendingDataIds() {
+        return outbox.list().stream().map(entry -> entry.getConfig().getDataId()).collect(Collectors.toList());
+    }
+
+    private List<String> readLines() throws IOException {
+        return Files.readAllLines(backupDir.resolve("outbox.log"), StandardCharsets.UTF_8);
+    }
+
+    private void append(String line) throws IOException {
+        Files.write(backupDir.resolve("outbox.log"), (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+    }
+
+    private static ConfigMetadata config(String dataId) {
+        return new ConfigMetadata()
+            .setEnvironment("dev")
+            .setAppName("app")
+            .setNamespace("dev")
+            .setGroup("APP_GROUP")
+            .setDataId(dataId)
+            .setLocation("file:/configs/dev/app/" + dataId);
+    }
+}